@@ -54,7 +54,7 @@ public class PerformanceStatistics {
     CATEGORY_MAP.put("Main", "1.main");
     CATEGORY_MAP.put("Test", "1.test");
     CATEGORY_MAP.put("Scanners", "2.scanners");
-    CATEGORY_MAP.put("IssuableSubscriptionVisitors", "2.subscription");
+    CATEGORY_MAP.put("SubscriptionVisitors", "2.subscription");
     CATEGORY_MAP.put("SymbolicExecutionVisitor", "3.symbolic-execution");
   }
 
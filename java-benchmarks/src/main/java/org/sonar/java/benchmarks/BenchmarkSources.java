@@ -0,0 +1,139 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.internal.SonarRuntimeImpl;
+import org.sonar.api.utils.Version;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.checks.verifier.TestUtils;
+import org.sonar.java.classpath.ClasspathForMain;
+import org.sonar.java.classpath.ClasspathForTest;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JavaTree;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Sample sources of the benchmarks, checked in the {@code java-checks-test-sources} module, and the classpath against which
+ * they are parsed. Benchmarks have to be run from the root directory of the project or from the benchmarks module, once
+ * {@code java-checks-test-sources} has been built.
+ */
+public final class BenchmarkSources {
+
+  private static final String TEST_SOURCES_MODULE = "java-checks-test-sources";
+
+  private BenchmarkSources() {
+    // utility class
+  }
+
+  public static File moduleDirectory() {
+    File fromRoot = new File(TEST_SOURCES_MODULE);
+    return fromRoot.isDirectory() ? fromRoot : new File("..", TEST_SOURCES_MODULE);
+  }
+
+  /**
+   * @param path path relative to {@code java-checks-test-sources/src/main/java}
+   */
+  public static File file(String path) {
+    File file = new File(moduleDirectory(), "src/main/java/" + path);
+    if (!file.isFile()) {
+      throw new IllegalStateException("Sample '" + path + "' should exist in " + moduleDirectory().getAbsolutePath());
+    }
+    return file;
+  }
+
+  public static InputFile inputFile(String path) {
+    return TestUtils.inputFile(file(path));
+  }
+
+  public static String content(File file) {
+    try {
+      return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @return the jars copied by the build of {@code java-checks-test-sources}, and its compiled classes
+   */
+  public static List<File> classpath() {
+    List<File> classpath;
+    try (Stream<Path> files = Files.walk(new File(moduleDirectory(), "target/test-jars").toPath())) {
+      classpath = files
+        .filter(path -> path.toString().endsWith(".jar") || path.toString().endsWith(".zip"))
+        .map(Path::toFile)
+        .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    classpath.add(new File(moduleDirectory(), "target/classes"));
+    return classpath;
+  }
+
+  /**
+   * @return components of a SonarLint analysis, providing the content of the files to the checks
+   */
+  public static SonarComponents sonarComponents() {
+    SensorContextTester context = SensorContextTester.create(new File(""))
+      .setRuntime(SonarRuntimeImpl.forSonarLint(Version.create(6, 7)));
+    DefaultFileSystem fileSystem = context.fileSystem();
+    ClasspathForMain classpathForMain = new ClasspathForMain(context.config(), fileSystem);
+    ClasspathForTest classpathForTest = new ClasspathForTest(context.config(), fileSystem);
+    SonarComponents sonarComponents = new SonarComponents(null, fileSystem, classpathForMain, classpathForTest, null);
+    sonarComponents.setSensorContext(context);
+    return sonarComponents;
+  }
+
+  public static JavaTree.CompilationUnitTreeImpl parse(File file, List<File> classpath) {
+    return (JavaTree.CompilationUnitTreeImpl) JParser.parse(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION, file.getName(), content(file), classpath);
+  }
+
+  /**
+   * @return methods with a body of the tree, including the ones of nested and anonymous classes
+   */
+  public static List<MethodTree> methods(Tree tree) {
+    List<MethodTree> methods = new ArrayList<>();
+    tree.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitMethod(MethodTree method) {
+        if (method.block() != null) {
+          methods.add(method);
+        }
+        super.visitMethod(method);
+      }
+    });
+    return methods;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.LiveVariables;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+/**
+ * Construction of the control flow graphs of the methods of a file by {@link CFG#build(MethodTree)}, and computation of
+ * their live variables by {@link LiveVariables#analyze(CFG)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ControlFlowGraphBenchmark {
+
+  @Param({
+    "checks/CatchUsesExceptionWithContextCheck.java",
+    "checks/ArrayCopyLoopCheck.java",
+    "symbolicexecution/checks/Transitivity.java"
+  })
+  public String sample;
+
+  private List<MethodTree> methods;
+  private List<CFG> cfgs;
+
+  @Setup
+  public void setup() {
+    methods = BenchmarkSources.methods(BenchmarkSources.parse(BenchmarkSources.file(sample), BenchmarkSources.classpath()));
+    cfgs = methods.stream().map(CFG::build).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public void build_cfg(Blackhole blackhole) {
+    for (MethodTree method : methods) {
+      blackhole.consume(CFG.build(method));
+    }
+  }
+
+  @Benchmark
+  public void analyze_live_variables(Blackhole blackhole) {
+    for (CFG cfg : cfgs) {
+      blackhole.consume(LiveVariables.analyze(cfg));
+    }
+  }
+}
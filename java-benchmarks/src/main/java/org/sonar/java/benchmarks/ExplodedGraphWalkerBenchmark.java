@@ -0,0 +1,92 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.model.DefaultJavaFileScannerContext;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.se.ExplodedGraphWalker;
+import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+/**
+ * Exploration by {@link ExplodedGraphWalker#visitMethod(MethodTree)} of the methods of a file, with the default checks of
+ * the walker. Behaviors of the invoked methods of the file are computed again for each invocation, as for a new file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExplodedGraphWalkerBenchmark {
+
+  @Param({
+    "symbolicexecution/checks/MapComputeIfAbsentOrPresentCheck.java",
+    "symbolicexecution/checks/S2755_XxeProcessingCheck_XmlInputFactory.java",
+    "symbolicexecution/checks/Transitivity.java"
+  })
+  public String sample;
+
+  private JavaTree.CompilationUnitTreeImpl tree;
+  private JavaFileScannerContext context;
+  private List<MethodTree> methods;
+
+  @Setup
+  public void setup() {
+    tree = BenchmarkSources.parse(BenchmarkSources.file(sample), BenchmarkSources.classpath());
+    context = new DefaultJavaFileScannerContext(tree, BenchmarkSources.inputFile(sample), tree.sema, null,
+      JavaVersionImpl.fromString(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION), true);
+    methods = BenchmarkSources.methods(tree);
+  }
+
+  @Benchmark
+  public void visit_methods(Blackhole blackhole) {
+    // only provides the behaviors of the methods of the file
+    SymbolicExecutionVisitor sev = new SymbolicExecutionVisitor(Collections.emptyList());
+    sev.setContext(context);
+    for (MethodTree method : methods) {
+      try {
+        blackhole.consume(new ExplodedGraphWalker(sev.behaviorCache, tree.sema).visitMethod(method));
+      } catch (ExplodedGraphWalker.MaximumStepsReachedException
+        | ExplodedGraphWalker.ExplodedGraphTooBigException
+        | ExplodedGraphWalker.MaximumStartingStatesException e) {
+        blackhole.consume(e);
+      }
+    }
+  }
+}
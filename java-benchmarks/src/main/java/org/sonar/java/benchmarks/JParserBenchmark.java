@@ -0,0 +1,80 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.java.model.JParser;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+/**
+ * Parsing of a file by {@link JParser}: without classpath, only the JDK types are resolved, with the classpath of the
+ * sample sources, every type is resolved from the jars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JParserBenchmark {
+
+  @Param({
+    "checks/BoxedBooleanExpressionsCheck.java",
+    "checks/regex/UnusedGroupNamesCheck.java",
+    "symbolicexecution/checks/Transitivity.java"
+  })
+  public String sample;
+
+  private String unitName;
+  private String source;
+  private List<File> classpath;
+
+  @Setup
+  public void setup() {
+    File file = BenchmarkSources.file(sample);
+    unitName = file.getName();
+    source = BenchmarkSources.content(file);
+    classpath = BenchmarkSources.classpath();
+  }
+
+  @Benchmark
+  public CompilationUnitTree parse_without_classpath() {
+    return JParser.parse(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION, unitName, source, Collections.emptyList());
+  }
+
+  @Benchmark
+  public CompilationUnitTree parse_with_classpath() {
+    return JParser.parse(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION, unitName, source, classpath);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.java.checks.CheckList;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.model.VisitorsBridgeForTests;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * Analysis of a parsed file by the regex rules of {@link CheckList}, which parse the regular expressions of the file and
+ * run the automata based checkers (backtracking, lookarounds, possessive quantifiers) on them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegexChecksBenchmark {
+
+  private static final String REGEX_CHECKS_PACKAGE = "org.sonar.java.checks.regex";
+
+  @Param({
+    "checks/regex/RedosCheck.java",
+    "checks/regex/EmptyLineRegexCheck.java",
+    "checks/regex/UnusedGroupNamesCheck.java"
+  })
+  public String sample;
+
+  private VisitorsBridgeForTests visitorsBridge;
+  private JavaTree.CompilationUnitTreeImpl tree;
+
+  @Setup
+  public void setup() {
+    List<Class<? extends JavaCheck>> regexChecks = CheckList.getJavaChecks().stream()
+      .filter(check -> check.getPackage().getName().equals(REGEX_CHECKS_PACKAGE))
+      .collect(Collectors.toList());
+    visitorsBridge = new VisitorsBridgeForTests(VisitorsBridgeBenchmark.instantiate(regexChecks), BenchmarkSources.classpath(), BenchmarkSources.sonarComponents());
+    visitorsBridge.setJavaVersion(JavaVersionImpl.fromString(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION));
+    visitorsBridge.setCurrentFile(BenchmarkSources.inputFile(sample));
+  }
+
+  @Setup(Level.Invocation)
+  public void parse() {
+    tree = BenchmarkSources.parse(BenchmarkSources.file(sample), BenchmarkSources.classpath());
+  }
+
+  @Benchmark
+  public int visit_file() {
+    visitorsBridge.visitFile(tree);
+    return visitorsBridge.lastCreatedTestContext().getIssues().size();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.java.checks.CheckList;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.model.VisitorsBridgeForTests;
+import org.sonar.java.se.SymbolicExecutionVisitor;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * Analysis of a parsed file by all the rules of {@link CheckList}, the symbolic execution engine going first as during
+ * an analysis. Issues are collected in memory, files are parsed again before each invocation as the analysis completes
+ * the semantic of the tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VisitorsBridgeBenchmark {
+
+  @Param({
+    "checks/BoxedBooleanExpressionsCheck.java",
+    "checks/CatchUsesExceptionWithContextCheck.java",
+    "symbolicexecution/checks/MapComputeIfAbsentOrPresentCheck.java"
+  })
+  public String sample;
+
+  private VisitorsBridgeForTests visitorsBridge;
+  private JavaTree.CompilationUnitTreeImpl tree;
+
+  @Setup
+  public void setup() {
+    List<JavaCheck> checks = instantiate(CheckList.getJavaChecks());
+    List<JavaCheck> visitors = new ArrayList<>();
+    visitors.add(new SymbolicExecutionVisitor(checks));
+    visitors.addAll(checks);
+    visitorsBridge = new VisitorsBridgeForTests(visitors, BenchmarkSources.classpath(), BenchmarkSources.sonarComponents());
+    visitorsBridge.setJavaVersion(JavaVersionImpl.fromString(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION));
+    visitorsBridge.setCurrentFile(BenchmarkSources.inputFile(sample));
+  }
+
+  @Setup(Level.Invocation)
+  public void parse() {
+    tree = BenchmarkSources.parse(BenchmarkSources.file(sample), BenchmarkSources.classpath());
+  }
+
+  @Benchmark
+  public int visit_file() {
+    visitorsBridge.visitFile(tree);
+    return visitorsBridge.lastCreatedTestContext().getIssues().size();
+  }
+
+  static List<JavaCheck> instantiate(List<Class<? extends JavaCheck>> checkClasses) {
+    List<JavaCheck> checks = new ArrayList<>();
+    for (Class<? extends JavaCheck> checkClass : checkClasses) {
+      try {
+        checks.add(checkClass.getConstructor().newInstance());
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Unable to instantiate " + checkClass.getName(), e);
+      }
+    }
+    return checks;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.collections;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link AVLTree} and {@link HashTrie} on the operations done by the symbolic execution on the constraints of a program
+ * state: a few updates on a map of 50 to 100 entries, lookups, and comparison with the states already explored.
+ * <p>
+ * In this package to access {@link HashTrie}, which is not public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PCollectionsBenchmark {
+
+  private static final int STATES = 10_000;
+  private static final Object[] CONSTRAINTS = {"NULL", "NOT_NULL", "TRUE", "FALSE", "ZERO", "NON_ZERO"};
+
+  @Param({"AVLTree", "HashTrie"})
+  public String implementation;
+
+  private final Object[] symbolicValues = new Object[200];
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < symbolicValues.length; i++) {
+      // identity hash codes, as for symbolic values
+      symbolicValues[i] = new Object();
+    }
+  }
+
+  private PMap<Object, Object> empty() {
+    return "HashTrie".equals(implementation) ? HashTrie.create() : AVLTree.create();
+  }
+
+  @Benchmark
+  public int explore_states() {
+    Random random = new Random(42);
+    int matches = 0;
+    PMap<Object, Object> state = empty();
+    for (int i = 0; i < 50 + random.nextInt(50); i++) {
+      state = state.put(symbolicValues[i], CONSTRAINTS[random.nextInt(CONSTRAINTS.length)]);
+    }
+    PMap<Object, Object> previous = state;
+    for (int i = 0; i < STATES; i++) {
+      PMap<Object, Object> next = state;
+      for (int update = 0; update < 4; update++) {
+        Object sv = symbolicValues[random.nextInt(symbolicValues.length)];
+        next = random.nextInt(4) == 0 ? next.remove(sv) : next.put(sv, CONSTRAINTS[random.nextInt(CONSTRAINTS.length)]);
+      }
+      for (int lookup = 0; lookup < 20; lookup++) {
+        if (next.get(symbolicValues[random.nextInt(symbolicValues.length)]) != null) {
+          matches++;
+        }
+      }
+      if (next.equals(previous) || next.equals(state)) {
+        matches++;
+      }
+      int[] count = {0};
+      next.forEach((k, v) -> count[0]++);
+      matches += count[0];
+      previous = next;
+      if (random.nextInt(8) == 0) {
+        state = next;
+      }
+    }
+    return matches;
+  }
+}
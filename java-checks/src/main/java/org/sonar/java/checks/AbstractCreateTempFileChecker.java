@@ -25,14 +25,13 @@ import java.util.LinkedList;
 import java.util.Map;
 import javax.annotation.Nullable;
 import org.sonar.java.JavaVersionAwareVisitor;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.ExpressionUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
@@ -41,7 +40,7 @@ import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
-public abstract class AbstractCreateTempFileChecker extends BaseTreeVisitor implements JavaFileScanner, JavaVersionAwareVisitor {
+public abstract class AbstractCreateTempFileChecker extends FusableTreeVisitor implements JavaVersionAwareVisitor {
 
   private enum State {
     CREATE_TMP_FILE,
@@ -68,9 +67,8 @@ public abstract class AbstractCreateTempFileChecker extends BaseTreeVisitor impl
   }
 
   @Override
-  public void scanFile(final JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
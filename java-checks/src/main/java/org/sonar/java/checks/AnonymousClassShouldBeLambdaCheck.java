@@ -25,8 +25,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.sonar.check.Rule;
 import org.sonar.java.JavaVersionAwareVisitor;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.JUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -43,7 +43,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TypeTree;
 
 @Rule(key = "S1604")
-public class AnonymousClassShouldBeLambdaCheck extends BaseTreeVisitor implements JavaFileScanner, JavaVersionAwareVisitor {
+public class AnonymousClassShouldBeLambdaCheck extends FusableTreeVisitor implements JavaVersionAwareVisitor {
 
   private static final String JAVA_LANG_OBJECT = "java.lang.Object";
   private JavaFileScannerContext context;
@@ -55,10 +55,9 @@ public class AnonymousClassShouldBeLambdaCheck extends BaseTreeVisitor implement
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     enumConstants = new ArrayList<>();
-    scan(context.getTree());
   }
 
   @Override
@@ -21,16 +21,15 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.EnumConstantTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 @Rule(key = "S1188")
-public class AnonymousClassesTooBigCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class AnonymousClassesTooBigCheck extends FusableTreeVisitor {
 
   private static final int DEFAULT_MAX = 20;
 
@@ -46,10 +45,9 @@ public class AnonymousClassesTooBigCheck extends BaseTreeVisitor implements Java
   private boolean isEnumConstantBody;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     isEnumConstantBody = false;
-    scan(context.getTree());
   }
 
   @Override
@@ -20,9 +20,8 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -32,14 +31,13 @@ import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.UnionTypeTree;
 
 @Rule(key = "S1696")
-public class CatchNPECheck extends BaseTreeVisitor implements JavaFileScanner {
+public class CatchNPECheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -28,10 +28,9 @@ import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.ArrayTypeTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -50,7 +49,7 @@ import org.sonar.plugins.java.api.tree.VariableTree;
 import org.sonar.plugins.java.api.tree.WildcardTree;
 
 @Rule(key = "S1200")
-public class ClassCouplingCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class ClassCouplingCheck extends FusableTreeVisitor {
 
   private static final int DEFAULT_MAX = 20;
 
@@ -65,9 +64,8 @@ public class ClassCouplingCheck extends BaseTreeVisitor implements JavaFileScann
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -23,11 +23,10 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.ModifiersUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.Modifier;
 import org.sonar.plugins.java.api.tree.ModifiersTree;
@@ -37,16 +36,15 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "ClassVariableVisibilityCheck", repositoryKey = "squid")
 @Rule(key = "S1104")
-public class ClassVariableVisibilityCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class ClassVariableVisibilityCheck extends FusableTreeVisitor {
 
   private Deque<Boolean> isClassStack = new ArrayDeque<>();
 
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
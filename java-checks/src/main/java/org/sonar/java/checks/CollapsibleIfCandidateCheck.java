@@ -21,9 +21,8 @@ package org.sonar.java.checks;
 
 import java.util.Collections;
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.IfStatementTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -33,15 +32,18 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 
 @Rule(key = "S1066")
-public class CollapsibleIfCandidateCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class CollapsibleIfCandidateCheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
   private Deque<IfStatementTree> outerIf = new ArrayDeque<>();
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     outerIf.clear();
   }
 
@@ -20,11 +20,10 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.collections.MapBuilder;
 import org.sonar.java.model.ModifiersUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Modifier;
@@ -38,7 +37,7 @@ import javax.annotation.Nullable;
 import java.util.Map;
 
 @Rule(key = "S1319")
-public class CollectionImplementationReferencedCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class CollectionImplementationReferencedCheck extends FusableTreeVisitor {
 
   private static final String DEQUE = "Deque";
   private static final String LIST = "List";
@@ -88,9 +87,8 @@ public class CollectionImplementationReferencedCheck extends BaseTreeVisitor imp
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(final JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -20,11 +20,10 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.LiteralUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -33,7 +32,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 
 @Rule(key = "S1155")
-public class CollectionIsEmptyCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class CollectionIsEmptyCheck extends FusableTreeVisitor {
 
   private static final String JAVA_UTIL_COLLECTION = "java.util.Collection";
   private static final MethodMatchers SIZE_METHOD = MethodMatchers.create()
@@ -45,10 +44,8 @@ public class CollectionIsEmptyCheck extends BaseTreeVisitor implements JavaFileS
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-
-    scan(context.getTree());
   }
 
   @Override
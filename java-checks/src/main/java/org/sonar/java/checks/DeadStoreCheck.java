@@ -28,6 +28,7 @@ import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
 import org.sonar.java.cfg.LiveVariables;
+import org.sonar.java.cfg.MethodDataflow;
 import org.sonar.java.cfg.VariableReadExtractor;
 import org.sonar.java.checks.helpers.UnresolvedIdentifiersVisitor;
 import org.sonar.java.model.ExpressionUtils;
@@ -81,8 +82,9 @@ public class DeadStoreCheck extends IssuableSubscriptionVisitor {
     UNRESOLVED_IDENTIFIERS_VISITOR.check(methodTree);
 
     Symbol.MethodSymbol methodSymbol = methodTree.symbol();
-    CFG cfg = CFG.build(methodTree);
-    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+    MethodDataflow dataflow = MethodDataflow.of(methodTree);
+    CFG cfg = dataflow.cfg();
+    LiveVariables liveVariables = dataflow.liveVariables();
     // Liveness analysis provides information only for block boundaries, so we should do analysis between elements within blocks
     for (CFG.Block block : cfg.blocks()) {
       checkElements(block, liveVariables.getOut(block), methodSymbol);
@@ -20,10 +20,9 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.SyntacticEquivalence;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IfStatementTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -32,15 +31,13 @@ import org.sonar.plugins.java.api.tree.Tree;
 import java.util.Collections;
 
 @Rule(key = "S1862")
-public class DuplicateConditionIfElseIfCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class DuplicateConditionIfElseIfCheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-
-    scan(context.getTree());
   }
 
   @Override
@@ -20,10 +20,9 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ForStatementTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -37,16 +36,15 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "ForLoopCounterChangedCheck", repositoryKey = "squid")
 @Rule(key = "S127")
-public class ForLoopCounterChangedCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class ForLoopCounterChangedCheck extends FusableTreeVisitor {
 
   private final Set<String> loopCounters = new HashSet<>();
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     loopCounters.clear();
-    scan(context.getTree());
   }
 
   @Override
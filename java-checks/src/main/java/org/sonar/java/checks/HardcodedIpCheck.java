@@ -26,15 +26,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.lang.StringUtils;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.LiteralUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.LiteralTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 @Rule(key = "S1313")
-public class HardcodedIpCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class HardcodedIpCheck extends FusableTreeVisitor {
 
   private static final Pattern IP_V4_REGEX = Pattern.compile("([^\\d.]*\\/)?((?<ip>(?:\\d{1,3}\\.){3}\\d{1,3})(:\\d{1,5})?(?!\\d|\\.))(\\/.*)?");
 
@@ -57,9 +56,8 @@ public class HardcodedIpCheck extends BaseTreeVisitor implements JavaFileScanner
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(final JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
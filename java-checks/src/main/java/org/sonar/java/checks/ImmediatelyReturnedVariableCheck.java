@@ -21,10 +21,9 @@ package org.sonar.java.checks;
 
 import org.apache.commons.lang.StringUtils;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.collections.MapBuilder;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -39,7 +38,7 @@ import java.util.List;
 import java.util.Map;
 
 @Rule(key = "S1488")
-public class ImmediatelyReturnedVariableCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class ImmediatelyReturnedVariableCheck extends FusableTreeVisitor {
 
   private static final Map<Kind, String> MESSAGE_KEYS = MapBuilder.<Kind, String>newMap()
     .put(Kind.THROW_STATEMENT, "throw")
@@ -50,9 +49,8 @@ public class ImmediatelyReturnedVariableCheck extends BaseTreeVisitor implements
   private String lastTypeForMessage;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -23,11 +23,10 @@ import java.util.Collections;
 import java.util.List;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.collections.ListUtils;
 import org.sonar.java.model.JavaTree;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
@@ -42,7 +41,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "IndentationCheck", repositoryKey = "squid")
 @Rule(key = "S1120")
-public class IndentationCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class IndentationCheck extends FusableTreeVisitor {
 
   private static final int DEFAULT_INDENTATION_LEVEL = 2;
 
@@ -59,13 +58,12 @@ public class IndentationCheck extends BaseTreeVisitor implements JavaFileScanner
   private List<String> fileLines;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     expectedLevel = 0;
     isBlockAlreadyReported = false;
     excludeIssueAtLine = 0;
     this.context = context;
     fileLines = context.getFileLines();
-    scan(context.getTree());
   }
 
   @Override
@@ -22,16 +22,15 @@ package org.sonar.java.checks;
 import java.util.Collections;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 
 @Rule(key = "S5612")
-public class LambdaTooBigCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class LambdaTooBigCheck extends FusableTreeVisitor {
 
   private static final int DEFAULT_MAX = 10;
 
@@ -43,9 +42,8 @@ public class LambdaTooBigCheck extends BaseTreeVisitor implements JavaFileScanne
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -19,11 +19,10 @@
  */
 package org.sonar.java.checks;
 
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.collections.ListUtils;
 import org.sonar.plugins.java.api.JavaCheck;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
@@ -52,14 +51,13 @@ import javax.annotation.CheckForNull;
 
 import java.util.List;
 
-public abstract class LeftCurlyBraceBaseTreeVisitor extends BaseTreeVisitor implements JavaFileScanner {
+public abstract class LeftCurlyBraceBaseTreeVisitor extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   protected void addIssue(SyntaxToken openBraceToken, JavaCheck check, String message) {
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.List;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.MethodDataflow;
 import org.sonar.java.model.ExpressionUtils;
 import org.sonar.java.model.LiteralUtils;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
@@ -225,7 +226,7 @@ public class LoopExecutingAtMostOnceCheck extends IssuableSubscriptionVisitor {
     } while (!currentTree.is(Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR, Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.INITIALIZER, Tree.Kind.STATIC_INITIALIZER));
 
     if (currentTree.is(Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR)) {
-      return CFG.build((MethodTree) currentTree);
+      return MethodDataflow.of((MethodTree) currentTree).cfg();
     }
     if (currentTree.is(Tree.Kind.LAMBDA_EXPRESSION)) {
       currentTree = ((LambdaExpressionTree) currentTree).body();
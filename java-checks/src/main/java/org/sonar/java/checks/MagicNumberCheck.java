@@ -21,11 +21,10 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.checks.helpers.MethodTreeUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.EnumConstantTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.LiteralTree;
@@ -44,7 +43,7 @@ import java.util.List;
 import java.util.Locale;
 
 @Rule(key = "S109")
-public class MagicNumberCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class MagicNumberCheck extends FusableTreeVisitor {
 
   private static final String DEFAULT_AUTHORIZED_NUMBERS = "-1,0,1";
 
@@ -57,13 +56,12 @@ public class MagicNumberCheck extends BaseTreeVisitor implements JavaFileScanner
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     this.authorizedNumbersList = new ArrayList<>();
     for (String s : authorizedNumbers.split(",")) {
       authorizedNumbersList.add(new BigDecimal(s.trim()));
     }
-    scan(context.getTree());
   }
 
   @Override
@@ -22,23 +22,21 @@ package org.sonar.java.checks;
 import java.io.File;
 import java.text.MessageFormat;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.PackageUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.PackageDeclarationTree;
 
 @Rule(key = "S1598")
-public class MismatchPackageDirectoryCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class MismatchPackageDirectoryCheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
   private static final String MESSAGE = "This file \"{0}\" should be located in \"{1}\" directory, not in \"{2}\"";
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
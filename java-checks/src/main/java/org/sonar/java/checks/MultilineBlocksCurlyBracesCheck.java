@@ -21,9 +21,8 @@ package org.sonar.java.checks;
 
 import java.util.Locale;
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ForEachStatement;
 import org.sonar.plugins.java.api.tree.ForStatementTree;
@@ -34,7 +33,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.WhileStatementTree;
 
 @Rule(key = "S2681")
-public class MultilineBlocksCurlyBracesCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class MultilineBlocksCurlyBracesCheck extends FusableTreeVisitor {
 
   private static final String LOOP_MESSAGE = "This line will not be executed in a loop; only the first line of this %d-line block will be. The rest will execute only once.";
   private static final String LOOP_MESSAGE_ONE_LINER = "This statement will not be executed in a loop; only the first statement will be. The rest will execute only once.";
@@ -44,9 +43,8 @@ public class MultilineBlocksCurlyBracesCheck extends BaseTreeVisitor implements
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(final JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -27,14 +27,13 @@ import java.util.List;
 import java.util.Locale;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.LiteralUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
@@ -46,7 +45,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
 @Rule(key = "S2384")
-public class MutableMembersUsageCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class MutableMembersUsageCheck extends FusableTreeVisitor {
 
   private static final List<String> MUTABLE_TYPES = Arrays.asList(
     "java.util.Collection",
@@ -68,9 +67,8 @@ public class MutableMembersUsageCheck extends BaseTreeVisitor implements JavaFil
   private Deque<List<Symbol>> parametersStack = new LinkedList<>();
 
   @Override
-  public void scanFile(final JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -21,9 +21,8 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.DoWhileStatementTree;
 import org.sonar.plugins.java.api.tree.ForEachStatement;
 import org.sonar.plugins.java.api.tree.ForStatementTree;
@@ -41,7 +40,7 @@ import java.util.Deque;
 import java.util.List;
 
 @Rule(key = "S134")
-public class NestedIfStatementsCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class NestedIfStatementsCheck extends FusableTreeVisitor {
 
   private static final int DEFAULT_MAX = 3;
 
@@ -54,10 +53,9 @@ public class NestedIfStatementsCheck extends BaseTreeVisitor implements JavaFile
   private Deque<Tree> nestingLevel;
 
   @Override
-  public void scanFile(final JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     this.nestingLevel = new ArrayDeque<>();
-    scan(context.getTree());
   }
 
   @Override
@@ -20,9 +20,8 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -34,16 +33,15 @@ import java.util.Deque;
 import java.util.List;
 
 @Rule(key = "S1141")
-public class NestedTryCatchCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class NestedTryCatchCheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
   private Deque<Deque<Tree>> nestingLevel = new ArrayDeque<>();
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     nestingLevel.clear();
-    scan(context.getTree());
   }
 
   @Override
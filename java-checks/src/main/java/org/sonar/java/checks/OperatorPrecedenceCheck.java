@@ -29,13 +29,12 @@ import java.util.Objects;
 import java.util.Set;
 import org.apache.commons.lang.BooleanUtils;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.collections.SetUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.ArrayAccessExpressionTree;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
 import org.sonar.plugins.java.api.tree.ConditionalExpressionTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -50,7 +49,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.UnaryExpressionTree;
 
 @Rule(key = "S864")
-public class OperatorPrecedenceCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class OperatorPrecedenceCheck extends FusableTreeVisitor {
 
   private static final Map<OperatorRelation, Boolean> OPERATORS_RELATION_TABLE = new HashMap<>();
 
@@ -105,10 +104,13 @@ public class OperatorPrecedenceCheck extends BaseTreeVisitor implements JavaFile
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     reportedLines.clear();
-    scan(context.getTree());
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     reportedLines.clear();
   }
 
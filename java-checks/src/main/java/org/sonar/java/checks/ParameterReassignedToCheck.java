@@ -22,6 +22,7 @@ package org.sonar.java.checks;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
 import org.sonar.java.cfg.LiveVariables;
+import org.sonar.java.cfg.MethodDataflow;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -62,9 +63,8 @@ public class ParameterReassignedToCheck extends BaseTreeVisitor implements JavaF
     if(block == null) {
       return;
     }
-    CFG cfg = CFG.build(tree);
-    LiveVariables analyze = LiveVariables.analyze(cfg);
-    Set<Symbol> live = analyze.getIn(cfg.entryBlock());
+    MethodDataflow dataflow = MethodDataflow.of(tree);
+    Set<Symbol> live = dataflow.liveVariables().getIn(dataflow.cfg().entryBlock());
     for (VariableTree parameterTree : tree.parameters()) {
       if(!live.contains(parameterTree.symbol())) {
         variables.add(parameterTree.symbol());
@@ -22,18 +22,17 @@ package org.sonar.java.checks;
 import java.util.LinkedList;
 import java.util.List;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.ExpressionUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.semantic.Type.Primitives;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 @Rule(key = "S3034")
-public class RawByteBitwiseOperationsCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class RawByteBitwiseOperationsCheck extends FusableTreeVisitor {
 
   JavaFileScannerContext context;
   List<ExpressionTree> shifts = new LinkedList<>();
@@ -41,9 +40,12 @@ public class RawByteBitwiseOperationsCheck extends BaseTreeVisitor implements Ja
 
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     shifts.clear();
     byteContainments.clear();
   }
@@ -24,12 +24,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.checks.helpers.MethodTreeUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.semantic.Type;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
@@ -40,7 +39,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "S00112", repositoryKey = "squid")
 @Rule(key = "S112")
-public class RawExceptionCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class RawExceptionCheck extends FusableTreeVisitor {
 
   private static final List<String> RAW_EXCEPTIONS = Arrays.asList(
     "java.lang.Throwable",
@@ -52,9 +51,8 @@ public class RawExceptionCheck extends BaseTreeVisitor implements JavaFileScanne
   private final Set<Type> exceptionsThrownByMethodInvocations = new HashSet<>();
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
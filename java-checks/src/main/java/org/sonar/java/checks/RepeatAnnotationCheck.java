@@ -21,11 +21,10 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.java.JavaVersionAwareVisitor;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
@@ -35,7 +34,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import java.util.List;
 
 @Rule(key = "S1710")
-public class RepeatAnnotationCheck extends BaseTreeVisitor implements JavaFileScanner, JavaVersionAwareVisitor {
+public class RepeatAnnotationCheck extends FusableTreeVisitor implements JavaVersionAwareVisitor {
 
   private JavaFileScannerContext context;
 
@@ -45,9 +44,8 @@ public class RepeatAnnotationCheck extends BaseTreeVisitor implements JavaFileSc
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
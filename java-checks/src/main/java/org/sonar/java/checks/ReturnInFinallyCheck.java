@@ -20,9 +20,8 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.BreakStatementTree;
 import org.sonar.plugins.java.api.tree.ContinueStatementTree;
@@ -42,16 +41,15 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 @Rule(key = "S1143")
-public class ReturnInFinallyCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class ReturnInFinallyCheck extends FusableTreeVisitor {
 
   private final Deque<Tree.Kind> treeKindStack = new LinkedList<>();
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     treeKindStack.clear();
-    scan(context.getTree());
   }
 
   @Override
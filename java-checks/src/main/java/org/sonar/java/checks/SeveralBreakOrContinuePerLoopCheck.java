@@ -21,9 +21,8 @@ package org.sonar.java.checks;
 
 import java.util.stream.Collectors;
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BreakStatementTree;
 import org.sonar.plugins.java.api.tree.ContinueStatementTree;
 import org.sonar.plugins.java.api.tree.DoWhileStatementTree;
@@ -39,7 +38,7 @@ import java.util.Deque;
 import java.util.List;
 
 @Rule(key = "S135")
-public class SeveralBreakOrContinuePerLoopCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class SeveralBreakOrContinuePerLoopCheck extends FusableTreeVisitor {
 
   private final Deque<List<Tree>> breakAndContinueCounter = new ArrayDeque<>();
   private final Deque<Boolean> currentScopeIsSwitch = new ArrayDeque<>();
@@ -48,10 +47,9 @@ public class SeveralBreakOrContinuePerLoopCheck extends BaseTreeVisitor implemen
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     loopCount = 0;
-    scan(context.getTree());
   }
 
   @Override
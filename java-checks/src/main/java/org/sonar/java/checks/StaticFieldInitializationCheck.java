@@ -72,6 +72,11 @@ public class StaticFieldInitializationCheck extends AbstractInSynchronizeChecker
     classWithSynchronizedMethod.clear();
   }
 
+  @Override
+  public MethodMatchers subscribedMatchers() {
+    return MethodMatchers.or(super.subscribedMatchers(), locks);
+  }
+
   @Override
   public void visitNode(Tree tree) {
     switch (tree.kind()) {
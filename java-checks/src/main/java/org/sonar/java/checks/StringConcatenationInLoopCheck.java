@@ -20,13 +20,12 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.ExpressionUtils;
 import org.sonar.java.model.SyntacticEquivalence;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.ArrayAccessExpressionTree;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
 import org.sonar.plugins.java.api.tree.DoWhileStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -42,16 +41,15 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 @Rule(key = "S1643")
-public class StringConcatenationInLoopCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class StringConcatenationInLoopCheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
   private Deque<Tree> loopLevel = new LinkedList<>();
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     loopLevel.clear();
-    scan(context.getTree());
   }
 
   @Override
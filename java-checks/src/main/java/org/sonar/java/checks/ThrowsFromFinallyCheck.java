@@ -20,15 +20,14 @@
 package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.ThrowStatementTree;
 import org.sonar.plugins.java.api.tree.TryStatementTree;
 
 @Rule(key = "S1163")
-public class ThrowsFromFinallyCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class ThrowsFromFinallyCheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
 
@@ -36,9 +35,8 @@ public class ThrowsFromFinallyCheck extends BaseTreeVisitor implements JavaFileS
   private boolean isInMethodWithinFinally;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
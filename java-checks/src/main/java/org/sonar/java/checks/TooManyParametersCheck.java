@@ -23,17 +23,16 @@ import java.util.Arrays;
 import java.util.List;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.SymbolMetadata;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "S00107", repositoryKey = "squid")
 @Rule(key = "S107")
-public class TooManyParametersCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class TooManyParametersCheck extends FusableTreeVisitor {
 
   private static final int DEFAULT_MAXIMUM = 7;
 
@@ -68,9 +67,8 @@ public class TooManyParametersCheck extends BaseTreeVisitor implements JavaFileS
   );
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -24,16 +24,15 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 import org.sonar.check.Rule;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.TypeParameters;
 
 @Rule(key = "S4977")
-public class TypeParametersShadowingCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class TypeParametersShadowingCheck extends FusableTreeVisitor {
 
   private static final String ISSUE_MESSAGE = "Rename \"%s\" which hides a type parameter from the outer scope.";
 
@@ -42,10 +41,9 @@ public class TypeParametersShadowingCheck extends BaseTreeVisitor implements Jav
   private Map<String, IdentifierTree> currentTypeParametersInScope;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
     currentTypeParametersInScope = new HashMap<>();
-    scan(context.getTree());
   }
 
   @Override
@@ -21,6 +21,7 @@ package org.sonar.java.checks.methods;
 
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.java.matcher.MethodMatchersSubscriber;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
@@ -28,7 +29,7 @@ import org.sonar.plugins.java.api.tree.MethodReferenceTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
-public abstract class AbstractMethodDetection extends IssuableSubscriptionVisitor {
+public abstract class AbstractMethodDetection extends IssuableSubscriptionVisitor implements MethodMatchersSubscriber {
 
   private MethodMatchers matchers;
 
@@ -61,6 +62,15 @@ public abstract class AbstractMethodDetection extends IssuableSubscriptionVisito
 
   protected abstract MethodMatchers getMethodInvocationMatchers();
 
+  /**
+   * Subclasses reacting to method invocations, constructor calls or method references not matching
+   * {@link #getMethodInvocationMatchers()} have to add the matchers of these invocations.
+   */
+  @Override
+  public MethodMatchers subscribedMatchers() {
+    return matchers();
+  }
+
   protected void onMethodInvocationFound(MethodInvocationTree mit) {
     // Do nothing by default
   }
@@ -21,10 +21,9 @@ package org.sonar.java.checks.naming;
 
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.model.ModifiersUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.Modifier;
@@ -35,7 +34,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "S00118", repositoryKey = "squid")
 @Rule(key = "S118")
-public class BadAbstractClassNameCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class BadAbstractClassNameCheck extends FusableTreeVisitor {
 
   private static final String DEFAULT_FORMAT = "^Abstract[A-Z][a-zA-Z0-9]*$";
 
@@ -49,12 +48,11 @@ public class BadAbstractClassNameCheck extends BaseTreeVisitor implements JavaFi
   private JavaFileScannerContext context;
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     if (pattern == null) {
       pattern = Pattern.compile(format, Pattern.DOTALL);
     }
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
@@ -21,24 +21,22 @@ package org.sonar.java.checks.naming;
 
 import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.collections.SetUtils;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
 @Rule(key = "S1190")
-public class KeywordAsIdentifierCheck extends BaseTreeVisitor implements JavaFileScanner {
+public class KeywordAsIdentifierCheck extends FusableTreeVisitor {
 
   private JavaFileScannerContext context;
 
   private static final Set<String> FORBIDDEN_IDENTIFIERS = SetUtils.immutableSetOf("enum", "_","assert");
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
     this.context = context;
-    scan(context.getTree());
   }
 
   @Override
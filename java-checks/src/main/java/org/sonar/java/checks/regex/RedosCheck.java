@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import org.sonar.java.checks.helpers.IntersectAutomataChecker;
 import org.sonar.java.checks.helpers.RegexReachabilityChecker;
 import org.sonar.java.checks.helpers.SimplifiedRegexCharacterClass;
 import org.sonar.java.checks.helpers.SubAutomaton;
+import org.sonar.java.regex.ProjectRegexCache;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.AtomicGroupTree;
 import org.sonarsource.analyzer.commons.regex.ast.AutomatonState;
@@ -76,6 +78,12 @@ public class RedosCheck extends AbstractRegexCheckTrackingMatchType {
   private boolean regexContainsBackReference;
   private BacktrackingType foundBacktrackingType;
 
+  /**
+   * Analysis results by match type, then by regex source text and initial flags, which are the only inputs of the analysis:
+   * the same regexes are often used in many files of a project.
+   */
+  private final Map<MatchType, ProjectRegexCache<AnalysisResult>> analysisResults = new EnumMap<>(MatchType.class);
+
   private final RegexReachabilityChecker reachabilityChecker = new RegexReachabilityChecker(false);
   private final IntersectAutomataChecker intersectionChecker = new IntersectAutomataChecker(false);
 
@@ -126,6 +134,16 @@ public class RedosCheck extends AbstractRegexCheckTrackingMatchType {
     if (regexForLiterals.getResult().getText().length() > MAX_REGEX_LENGTH) {
       return;
     }
+    AnalysisResult analysisResult = analysisResults.computeIfAbsent(matchType, k -> new ProjectRegexCache<>())
+      .computeIfAbsent(regexForLiterals, regex -> analyze(regex, matchType));
+    regexContainsBackReference = analysisResult.containsBackReference;
+    foundBacktrackingType = analysisResult.backtrackingType;
+    message().ifPresent(message ->
+      reportIssue(methodOrAnnotationName(methodInvocationOrAnnotation), message, null, Collections.emptyList())
+    );
+  }
+
+  private AnalysisResult analyze(RegexParseResult regexForLiterals, MatchType matchType) {
     regexContainsBackReference = false;
     foundBacktrackingType = BacktrackingType.NO_ISSUE;
     reachabilityChecker.clearCache();
@@ -134,9 +152,17 @@ public class RedosCheck extends AbstractRegexCheckTrackingMatchType {
     boolean isUsedForPartialMatch = matchType == MatchType.PARTIAL || matchType == MatchType.BOTH;
     RedosFinder visitor = new RedosFinder(regexForLiterals.getStartState(), regexForLiterals.getFinalState(), isUsedForFullMatch, isUsedForPartialMatch);
     visitor.visit(regexForLiterals);
-    message().ifPresent(message ->
-      reportIssue(methodOrAnnotationName(methodInvocationOrAnnotation), message, null, Collections.emptyList())
-    );
+    return new AnalysisResult(foundBacktrackingType, regexContainsBackReference);
+  }
+
+  private static class AnalysisResult {
+    private final BacktrackingType backtrackingType;
+    private final boolean containsBackReference;
+
+    private AnalysisResult(BacktrackingType backtrackingType, boolean containsBackReference) {
+      this.backtrackingType = backtrackingType;
+      this.containsBackReference = containsBackReference;
+    }
   }
 
   private void addBacktracking(BacktrackingType newBacktrackingType) {
@@ -0,0 +1,268 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.eclipse.jdt.core.dom;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
+import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.core.BasicCompilationUnit;
+import org.eclipse.jdt.internal.core.CancelableProblemFactory;
+import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
+
+/**
+ * Name environment built once for a given classpath, and shared by all the compilation units resolved against this classpath.
+ * Unlike the environment created by {@link ASTParser}, jars and JRT image stay opened between two compilation units,
+ * and the types which are not found on the classpath are remembered in a bounded cache.
+ * <p>
+ * {@link #cleanup()} is called by the AST consumers once a compilation unit has been analyzed, it does not release anything:
+ * resources are only released by {@link #release()}, once all the compilation units have been analyzed.
+ * <p>
+ * Not thread-safe: an instance should only be used by one thread at a time.
+ */
+public final class ClasspathNameEnvironment extends NameEnvironmentWithProgress {
+
+  private static final int MAX_CACHED_MISSES = 4096;
+  private static final int FLAGS = org.eclipse.jdt.core.ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
+
+  /**
+   * Keys of the types not found, in access order: a hit refreshes the key, and the least recently used key is evicted first
+   */
+  private final Map<String, Boolean> missesCache = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+      return size() > MAX_CACHED_MISSES;
+    }
+  };
+
+  private ClasspathNameEnvironment(Classpath[] classpaths) {
+    super(classpaths, null, null);
+  }
+
+  public static ClasspathNameEnvironment create(List<File> classpath, boolean includeRunningVMBootclasspath) {
+    Main main = new Main(new PrintWriter(new StringWriter()), new PrintWriter(new StringWriter()), false, null, null);
+    ArrayList<Classpath> allClasspaths = new ArrayList<>();
+    if (includeRunningVMBootclasspath) {
+      Util.collectRunningVMBootclasspath(allClasspaths);
+    }
+    for (File file : classpath) {
+      main.processPathEntries(Main.DEFAULT_SIZE_CLASSPATH, allClasspaths, file.getAbsolutePath(), null, false, false);
+    }
+    if (main.pendingErrors != null && !main.pendingErrors.isEmpty()) {
+      throw new IllegalStateException("invalid environment settings");
+    }
+    return new ClasspathNameEnvironment(allClasspaths.toArray(new Classpath[0]));
+  }
+
+  /**
+   * Same as {@link ASTParser#createAST(org.eclipse.core.runtime.IProgressMonitor)} for a compilation unit
+   * with bindings resolution and bindings recovery enabled, but resolved against this environment.
+   */
+  public CompilationUnit createAST(Map<String, String> options, String unitName, char[] source) {
+    Map<String, String> compilerOptions = compilerOptions(options);
+    org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit = new BasicCompilationUnit(source, null, unitName, (IJavaElement) null);
+    CompilationUnitDeclaration compilationUnitDeclaration = null;
+    try {
+      compilationUnitDeclaration = resolve(sourceUnit, compilerOptions);
+      return convert(compilationUnitDeclaration, source, compilerOptions, new DefaultBindingResolver.BindingTables());
+    } finally {
+      if (compilationUnitDeclaration != null) {
+        compilationUnitDeclaration.cleanUp();
+      }
+    }
+  }
+
+  /**
+   * Same as {@link ASTParser#createASTs(String[], String[], String[], FileASTRequestor, org.eclipse.core.runtime.IProgressMonitor)}
+   * for compilation units given by their content: all the units are resolved together by one compiler pass against this environment,
+   * and see each other's types without looking them up on the classpath.
+   * <p>
+   * ASTs are handed to the requestor in the order of the given units. The requestor has to consume each AST before returning,
+   * as the compiler structures of a unit are cleaned up once it has been accepted.
+   *
+   * @param sources contents of the compilation units, by unit name
+   * @return names of the units which have not been accepted because the compilation has been aborted, in the order of the given units
+   */
+  public List<String> createASTs(Map<String, String> options, Map<String, char[]> sources, BiConsumer<String, CompilationUnit> requestor) {
+    Map<String, String> compilerOptions = compilerOptions(options);
+    Set<String> notAccepted = new LinkedHashSet<>(sources.keySet());
+    org.eclipse.jdt.internal.compiler.env.ICompilationUnit[] sourceUnits = sources.entrySet().stream()
+      .map(source -> new BasicCompilationUnit(source.getValue(), null, source.getKey(), (IJavaElement) null))
+      .toArray(org.eclipse.jdt.internal.compiler.env.ICompilationUnit[]::new);
+    DefaultBindingResolver.BindingTables bindingTables = new DefaultBindingResolver.BindingTables();
+    CompilationUnitResolver resolver = resolver(compilerOptions);
+    try {
+      resolver.beginToCompile(sourceUnits, new String[0]);
+      // CompilationUnitResolver#process() only completes the units which have not been requested
+      resolver.requestedSources = new HashtableOfObject();
+      for (int i = 0; i < resolver.totalUnits; i++) {
+        CompilationUnitDeclaration unit = resolver.unitsToProcess[i];
+        try {
+          resolver.process(unit, i);
+          String unitName = new String(unit.compilationResult.getFileName());
+          if (notAccepted.remove(unitName)) {
+            requestor.accept(unitName, convert(unit, sources.get(unitName), compilerOptions, bindingTables));
+          }
+        } finally {
+          unit.cleanUp();
+        }
+        resolver.unitsToProcess[i] = null;
+      }
+    } catch (AbortCompilation e) {
+      // bindings could not be resolved due to missing types in name environment, remaining units have to be resolved separately
+    }
+    return new ArrayList<>(notAccepted);
+  }
+
+  private static Map<String, String> compilerOptions(Map<String, String> options) {
+    Map<String, String> compilerOptions = new HashMap<>(options);
+    // no need to parse task tags
+    compilerOptions.remove(JavaCore.COMPILER_TASK_TAGS);
+    return compilerOptions;
+  }
+
+  private CompilationUnitResolver resolver(Map<String, String> options) {
+    return new CompilationUnitResolver(
+      this,
+      CompilationUnitResolver.getHandlingPolicy(),
+      CompilationUnitResolver.getCompilerOptions(options, false),
+      CompilationUnitResolver.getRequestor(),
+      new CancelableProblemFactory(null),
+      null,
+      false);
+  }
+
+  /**
+   * See CompilationUnitResolver#resolve(ICompilationUnit, IJavaProject, List, NodeSearcher, Map, WorkingCopyOwner, int, IProgressMonitor)
+   */
+  private CompilationUnitDeclaration resolve(org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit, Map<String, String> options) {
+    CompilationUnitResolver resolver = resolver(options);
+    CompilationUnitDeclaration unit = resolver.resolve(sourceUnit, true, true, true);
+    if (resolver.hasCompilationAborted) {
+      // the bindings could not be resolved due to missing types in name environment
+      CompilationUnitDeclaration unitDeclaration = CompilationUnitResolver.parse(sourceUnit, null, options, FLAGS);
+      if (unit != null) {
+        int problemCount = unit.compilationResult.problemCount;
+        if (problemCount != 0) {
+          unitDeclaration.compilationResult.problems = new CategorizedProblem[problemCount];
+          System.arraycopy(unit.compilationResult.problems, 0, unitDeclaration.compilationResult.problems, 0, problemCount);
+          unitDeclaration.compilationResult.problemCount = problemCount;
+        }
+      } else if (resolver.abortProblem != null) {
+        unitDeclaration.compilationResult.problemCount = 1;
+        unitDeclaration.compilationResult.problems = new CategorizedProblem[] {resolver.abortProblem};
+      }
+      return unitDeclaration;
+    }
+    return unit;
+  }
+
+  private static CompilationUnit convert(CompilationUnitDeclaration unit, char[] source, Map<String, String> options,
+    DefaultBindingResolver.BindingTables bindingTables) {
+    return CompilationUnitResolver.convert(
+      unit,
+      source,
+      AST.JLS15,
+      options,
+      true,
+      DefaultWorkingCopyOwner.PRIMARY,
+      bindingTables,
+      FLAGS,
+      null,
+      false);
+  }
+
+  @Override
+  public NameEnvironmentAnswer findType(char[][] compoundName, char[] moduleName) {
+    if (compoundName == null) {
+      return null;
+    }
+    String key = cacheKey(CharOperation.concatWith(compoundName, '/'), moduleName, false);
+    return cached(key, () -> super.findType(compoundName, moduleName));
+  }
+
+  @Override
+  public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName, boolean searchWithSecondaryTypes, char[] moduleName) {
+    if (typeName == null) {
+      return null;
+    }
+    String key = cacheKey(CharOperation.concatWith(packageName, typeName, '/'), moduleName, searchWithSecondaryTypes);
+    return cached(key, () -> super.findType(typeName, packageName, searchWithSecondaryTypes, moduleName));
+  }
+
+  @Nullable
+  private NameEnvironmentAnswer cached(String key, Supplier<NameEnvironmentAnswer> lookup) {
+    // get, unlike containsKey, updates the access order
+    if (missesCache.get(key) != null) {
+      return null;
+    }
+    NameEnvironmentAnswer answer = lookup.get();
+    if (answer == null) {
+      // found answers are bound to the lookup environment consuming them and can not be shared between compilation units
+      missesCache.put(key, Boolean.TRUE);
+    }
+    return answer;
+  }
+
+  private static String cacheKey(char[] qualifiedName, @Nullable char[] moduleName, boolean searchWithSecondaryTypes) {
+    StringBuilder key = new StringBuilder().append(qualifiedName).append('|');
+    if (moduleName != null) {
+      key.append(moduleName);
+    }
+    return key.append('|').append(searchWithSecondaryTypes).toString();
+  }
+
+  /**
+   * Called after each compilation unit, the environment is kept opened to be reused by the next one.
+   */
+  @Override
+  public void cleanup() {
+    // resources are released by release()
+  }
+
+  /**
+   * Release all the opened jars and the cached lookups.
+   */
+  public void release() {
+    missesCache.clear();
+    super.cleanup();
+  }
+
+}
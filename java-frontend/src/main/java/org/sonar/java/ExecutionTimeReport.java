@@ -24,9 +24,11 @@ import java.time.Clock;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.java.model.SourceText;
 
 public class ExecutionTimeReport {
   private static final Logger LOG = Loggers.get(ExecutionTimeReport.class);
@@ -71,6 +73,13 @@ public class ExecutionTimeReport {
   }
 
   public void end() {
+    end(null);
+  }
+
+  /**
+   * @param currentFileSource source of the current file when it has already been read, the file is read again otherwise
+   */
+  public void end(@Nullable SourceText currentFileSource) {
     long currentAnalysisTime = clock.millis() - currentFileStartTimeMS;
     if (LOG.isTraceEnabled()) {
       LOG.trace("Analysis time of " + currentFile + " (" + currentAnalysisTime + "ms)");
@@ -79,11 +88,15 @@ public class ExecutionTimeReport {
     }
     if (currentAnalysisTime >= minRecordedOrderedExecutionTime) {
       long currentFileLengthInBytes;
-      try {
-        currentFileLengthInBytes = currentFile.contents().length();
-      } catch (IOException ignored) {
-        // Ignore and use the default size
-        currentFileLengthInBytes = -1;
+      if (currentFileSource != null) {
+        currentFileLengthInBytes = currentFileSource.length();
+      } else {
+        try {
+          currentFileLengthInBytes = currentFile.contents().length();
+        } catch (IOException ignored) {
+          // Ignore and use the default size
+          currentFileLengthInBytes = -1;
+        }
       }
       recordedOrderedExecutionTime.add(new ExecutionTime(currentFile.toString(), currentAnalysisTime, currentFileLengthInBytes));
       recordedOrderedExecutionTime.sort(ORDER_BY_ANALYSIS_TIME_DESCENDING_AND_FILE_ASCENDING);
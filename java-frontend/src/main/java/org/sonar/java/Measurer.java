@@ -21,117 +21,260 @@ package org.sonar.java;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.Metric;
+import org.sonar.java.ast.api.JavaKeyword;
 import org.sonar.java.ast.visitors.CognitiveComplexityVisitor;
 import org.sonar.java.ast.visitors.CommentLinesVisitor;
-import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
-import org.sonar.java.ast.visitors.StatementVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
-import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.BlockTree;
+import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.ForStatementTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
+import org.sonar.plugins.java.api.tree.StatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.TryStatementTree;
+import org.sonar.plugins.java.api.tree.VariableTree;
 
+/**
+ * Computes all the metrics of a file during the single walk of the tree shared by the subscription visitors:
+ * lines of code, comment lines and NOSONAR lines, statements, complexity, cognitive complexity, classes and functions.
+ * Counting rules are the ones of {@link org.sonar.java.ast.visitors.LinesOfCodeVisitor}, {@link CommentLinesVisitor},
+ * {@link org.sonar.java.ast.visitors.StatementVisitor} and {@link org.sonar.java.ast.visitors.ComplexityVisitor}.
+ */
 public class Measurer extends SubscriptionVisitor {
 
+  private static final String DEFAULT_KEYWORD = JavaKeyword.DEFAULT.getValue();
+
   private final SensorContext sensorContext;
   private final NoSonarFilter noSonarFilter;
   private InputFile sonarFile;
+  private final CommentLinesVisitor commentLinesVisitor = new CommentLinesVisitor();
+  private final Set<Integer> linesOfCode = new HashSet<>();
   private int methods;
   private final Deque<ClassTree> classTrees = new LinkedList<>();
   private int classes;
+  private int statements;
+  private final Set<Tree> variableTypes = new HashSet<>();
+  private int complexity;
+  private int cognitiveComplexity;
 
   public Measurer(SensorContext context, NoSonarFilter noSonarFilter) {
     this.sensorContext = context;
     this.noSonarFilter = noSonarFilter;
   }
 
-  public class TestFileMeasurer implements JavaFileScanner {
+  /**
+   * Only looks for NOSONAR lines in test files.
+   */
+  public class TestFileMeasurer extends SubscriptionVisitor {
+    private final CommentLinesVisitor testCommentLinesVisitor = new CommentLinesVisitor();
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.TOKEN);
+    }
+
+    @Override
+    public void setContext(JavaFileScannerContext context) {
+      super.setContext(context);
+      testCommentLinesVisitor.clear();
+    }
+
     @Override
-    public void scanFile(JavaFileScannerContext context) {
-      sonarFile = context.getInputFile();
-      createCommentLineVisitorAndFindNoSonar(context);
+    public void visitToken(SyntaxToken syntaxToken) {
+      testCommentLinesVisitor.visitToken(syntaxToken);
+    }
+
+    @Override
+    public void leaveFile(JavaFileScannerContext context) {
+      noSonarFilter.noSonarInFile(context.getInputFile(), testCommentLinesVisitor.noSonarLines());
     }
   }
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
-    return Arrays.asList(Tree.Kind.CLASS, Tree.Kind.INTERFACE, Tree.Kind.ENUM, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.RECORD,
-        Tree.Kind.NEW_CLASS, Tree.Kind.ENUM_CONSTANT,
-        Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR);
+    if (isSonarLintContext()) {
+      // No need to compute metrics on SonarLint side, but the no sonar filter is still required
+      return Collections.singletonList(Tree.Kind.TOKEN);
+    }
+    return Arrays.asList(
+      Tree.Kind.TOKEN,
+      // classes and functions
+      Tree.Kind.CLASS, Tree.Kind.INTERFACE, Tree.Kind.ENUM, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.RECORD,
+      Tree.Kind.NEW_CLASS, Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR,
+      Tree.Kind.INITIALIZER, Tree.Kind.STATIC_INITIALIZER,
+      // statements
+      Tree.Kind.EMPTY_STATEMENT, Tree.Kind.EXPRESSION_STATEMENT, Tree.Kind.VARIABLE,
+      Tree.Kind.IF_STATEMENT, Tree.Kind.ASSERT_STATEMENT, Tree.Kind.SWITCH_STATEMENT,
+      Tree.Kind.WHILE_STATEMENT, Tree.Kind.DO_STATEMENT, Tree.Kind.FOR_STATEMENT, Tree.Kind.FOR_EACH_STATEMENT,
+      Tree.Kind.BREAK_STATEMENT, Tree.Kind.CONTINUE_STATEMENT, Tree.Kind.RETURN_STATEMENT, Tree.Kind.THROW_STATEMENT,
+      Tree.Kind.SYNCHRONIZED_STATEMENT, Tree.Kind.TRY_STATEMENT,
+      // complexity
+      Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.CASE_LABEL, Tree.Kind.CONDITIONAL_EXPRESSION,
+      Tree.Kind.CONDITIONAL_AND, Tree.Kind.CONDITIONAL_OR);
   }
 
-
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
     sonarFile = context.getInputFile();
-    CommentLinesVisitor commentLinesVisitor = createCommentLineVisitorAndFindNoSonar(context);
-    if(isSonarLintContext()) {
-      // No need to compute metrics on SonarLint side, but the no sonar filter is still required
-      return;
-    }
+    commentLinesVisitor.clear();
+    linesOfCode.clear();
     classTrees.clear();
     methods = 0;
     classes = 0;
-    super.setContext(context);
-    scanTree(context.getTree());
-    //leave file.
-    int fileComplexity = context.getComplexityNodes(context.getTree()).size();
+    statements = 0;
+    variableTypes.clear();
+    complexity = 0;
+    cognitiveComplexity = 0;
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
+    noSonarFilter.noSonarInFile(sonarFile, commentLinesVisitor.noSonarLines());
+    if (isSonarLintContext()) {
+      return;
+    }
     saveMetricOnFile(CoreMetrics.CLASSES, classes);
     saveMetricOnFile(CoreMetrics.FUNCTIONS, methods);
-    saveMetricOnFile(CoreMetrics.COMPLEXITY, fileComplexity);
+    saveMetricOnFile(CoreMetrics.COMPLEXITY, complexity);
     saveMetricOnFile(CoreMetrics.COMMENT_LINES, commentLinesVisitor.commentLinesMetric());
-    saveMetricOnFile(CoreMetrics.STATEMENTS, new StatementVisitor().numberOfStatements(context.getTree()));
-    saveMetricOnFile(CoreMetrics.NCLOC, new LinesOfCodeVisitor().linesOfCode(context.getTree()));
-
-    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, CognitiveComplexityVisitor.compilationUnitComplexity(context.getTree()));
+    saveMetricOnFile(CoreMetrics.STATEMENTS, statements + variableTypes.size());
+    saveMetricOnFile(CoreMetrics.NCLOC, linesOfCode.size());
+    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, cognitiveComplexity);
   }
 
   private boolean isSonarLintContext() {
     return sensorContext.runtime().getProduct() == SonarProduct.SONARLINT;
   }
 
-  private CommentLinesVisitor createCommentLineVisitorAndFindNoSonar(JavaFileScannerContext context) {
-    CommentLinesVisitor commentLinesVisitor = new CommentLinesVisitor();
-    commentLinesVisitor.analyzeCommentLines(context.getTree());
-    noSonarFilter.noSonarInFile(sonarFile, commentLinesVisitor.noSonarLines());
-    return commentLinesVisitor;
+  @Override
+  public void visitToken(SyntaxToken syntaxToken) {
+    commentLinesVisitor.visitToken(syntaxToken);
+    if (!((InternalSyntaxToken) syntaxToken).isEOF()) {
+      linesOfCode.add(syntaxToken.line());
+    }
   }
 
   @Override
   public void visitNode(Tree tree) {
-    if (isClassTree(tree)) {
-      classes++;
-      classTrees.push((ClassTree) tree);
+    switch (tree.kind()) {
+      case CLASS:
+      case INTERFACE:
+      case ENUM:
+      case ANNOTATION_TYPE:
+      case RECORD:
+        classes++;
+        classTrees.push((ClassTree) tree);
+        break;
+      case NEW_CLASS:
+        if (((NewClassTree) tree).classBody() != null) {
+          classes--;
+        }
+        break;
+      case METHOD:
+      case CONSTRUCTOR:
+        visitMethod((MethodTree) tree);
+        break;
+      case INITIALIZER:
+      case STATIC_INITIALIZER:
+        cognitiveComplexity += CognitiveComplexityVisitor.initializerComplexity((BlockTree) tree);
+        break;
+      case VARIABLE:
+        variableTypes.add(((VariableTree) tree).type());
+        break;
+      case TRY_STATEMENT:
+        TryStatementTree tryStatement = (TryStatementTree) tree;
+        statements += 1 - tryStatement.resourceList().size() - tryStatement.catches().size();
+        break;
+      case IF_STATEMENT:
+      case WHILE_STATEMENT:
+      case DO_STATEMENT:
+      case FOR_STATEMENT:
+      case FOR_EACH_STATEMENT:
+        statements++;
+        complexity++;
+        break;
+      case LAMBDA_EXPRESSION:
+      case CONDITIONAL_EXPRESSION:
+      case CONDITIONAL_AND:
+      case CONDITIONAL_OR:
+        complexity++;
+        break;
+      case CASE_LABEL:
+        if (!DEFAULT_KEYWORD.equals(((CaseLabelTree) tree).caseOrDefaultKeyword().text())) {
+          // default keyword does not count in complexity
+          complexity++;
+        }
+        break;
+      default:
+        // other statements
+        statements++;
     }
-    if (tree.is(Tree.Kind.NEW_CLASS) && ((NewClassTree) tree).classBody() != null) {
-      classes--;
-    }
-    if (tree.is(Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR) && classTrees.peek().simpleName() != null) {
+  }
+
+  private void visitMethod(MethodTree tree) {
+    if (classTrees.peek().simpleName() != null) {
       //don't count methods in anonymous classes.
       methods++;
     }
-
+    if (tree.block() != null) {
+      complexity++;
+    }
+    cognitiveComplexity += CognitiveComplexityVisitor.methodComplexity(tree).complexity;
   }
 
   @Override
   public void leaveNode(Tree tree) {
-    if (isClassTree(tree)) {
-      classTrees.pop();
+    switch (tree.kind()) {
+      case CLASS:
+      case INTERFACE:
+      case ENUM:
+      case ANNOTATION_TYPE:
+      case RECORD:
+        classTrees.pop();
+        ((ClassTree) tree).members().stream()
+          .filter(member -> member.is(Tree.Kind.VARIABLE))
+          .forEach(member -> variableTypes.remove(((VariableTree) member).type()));
+        break;
+      case METHOD:
+      case CONSTRUCTOR:
+        ((MethodTree) tree).parameters().forEach(parameter -> variableTypes.remove(parameter.type()));
+        break;
+      case FOR_STATEMENT:
+        ForStatementTree forStatement = (ForStatementTree) tree;
+        removeVariables(forStatement.initializer());
+        removeVariables(forStatement.update());
+        break;
+      default:
+        // nothing to do
     }
   }
 
-  private static boolean isClassTree(Tree tree) {
-    return tree.is(Tree.Kind.CLASS, Tree.Kind.INTERFACE, Tree.Kind.ENUM, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.RECORD);
+  private void removeVariables(List<StatementTree> statementTrees) {
+    for (StatementTree statementTree : statementTrees) {
+      if (statementTree.is(Tree.Kind.VARIABLE)) {
+        variableTypes.remove(((VariableTree) statementTree).type());
+      } else {
+        statements--;
+      }
+    }
   }
 
   private <T extends Serializable> void saveMetricOnFile(Metric<T> metric, T value) {
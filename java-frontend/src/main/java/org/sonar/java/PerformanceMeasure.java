@@ -22,21 +22,30 @@ package org.sonar.java;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.api.config.Configuration;
 import org.sonar.api.utils.log.Logger;
@@ -45,27 +54,67 @@ import org.sonar.java.annotations.VisibleForTesting;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+/**
+ * Tree of the durations of the steps of the analysis, and of their CPU time and allocated bytes when measured with a
+ * {@link ResourceMeter}. Each thread records its own measures: the measures of a thread continuing the work of another one,
+ * see {@link #fork(PerformanceMeasure)}, are merged into the measures of the other thread when the root measure is stopped.
+ * <p>
+ * Measures are saved as JSON, and as folded stacks which can be rendered by flame graph tools.
+ */
 public class PerformanceMeasure {
   private static final Logger LOG = Loggers.get(PerformanceMeasure.class);
   private static final String ACTIVATION_PROPERTY = "sonar.java.performance.measure";
   private static final String FILE_PATH_PROPERTY = "sonar.java.performance.measure.path";
   private static final String DESTINATION_FILE = "sonar.java.performance.measure.json";
-  /**
-   * In a multi-threaded environment, this variable should be stored in a ThreadLocal
-   */
-  private static PerformanceMeasure currentMeasure = null;
+  private static final int MAX_FILE_MEASURES = 100;
+  private static final ThreadLocal<PerformanceMeasure> CURRENT_MEASURE = new ThreadLocal<>();
+  private static final ThreadLocal<FileDuration> CURRENT_FILE = new ThreadLocal<>();
   private static Path performanceMeasureFile = null;
   private static final IgnoredDuration NO_OP_DURATION = new IgnoredDuration();
 
+  /**
+   * CPU time and allocated bytes of the current thread, as provided by the {@link ThreadMXBean} of the JVM
+   */
+  public static final ResourceMeter THREAD_RESOURCES = new ThreadResourceMeter();
+
   @Nullable
   public final PerformanceMeasure parent;
   public final String name;
   public final Supplier<Long> nanoTimeSupplier;
+  @Nullable
+  public final ResourceMeter resourceMeter;
   private long totalDurationNanos = 0;
   private long callsCount = 0;
+  private boolean resourcesMeasured = false;
+  private long cpuNanos = 0;
+  private long allocatedBytes = 0;
   private Map<String, PerformanceMeasure> childrenMap = null;
 
+  /**
+   * Measure of another thread continued by this root measure of a thread, see {@link #fork(PerformanceMeasure)}
+   */
+  @Nullable
+  private final PerformanceMeasure forkedFrom;
+  /**
+   * Only for the root measure: measures of the threads continuing a measure, by thread and by continued measure
+   */
+  @Nullable
+  private final Map<Thread, Map<PerformanceMeasure, PerformanceMeasure>> forks;
+  /**
+   * Only for the root measure: measures of the files having the highest cost, the cheapest first. The measure of a file
+   * has the measures started by its thread during the analysis of the file as children.
+   */
+  @Nullable
+  private final PriorityQueue<PerformanceMeasure> fileMeasures;
+
   public static DurationReport start(Configuration config, String name, Supplier<Long> nanoTimeSupplier) {
+    return start(config, name, nanoTimeSupplier, null);
+  }
+
+  /**
+   * @param resourceMeter when not null, CPU time and allocated bytes are measured in addition to the durations
+   */
+  public static DurationReport start(Configuration config, String name, Supplier<Long> nanoTimeSupplier, @Nullable ResourceMeter resourceMeter) {
     performanceMeasureFile = config.get(PerformanceMeasure.FILE_PATH_PROPERTY)
       .filter(path -> !path.isEmpty())
       .map(path -> path.replace('\\', File.separatorChar).replace('/', File.separatorChar))
@@ -74,18 +123,23 @@ public class PerformanceMeasure {
     if (!config.get(PerformanceMeasure.ACTIVATION_PROPERTY).filter("true"::equals).isPresent()) {
       return NO_OP_DURATION;
     }
-    currentMeasure = new PerformanceMeasure(currentMeasure, name, nanoTimeSupplier);
-    return new RecordedDuration(currentMeasure);
+    if (resourceMeter != null) {
+      resourceMeter.enable();
+    }
+    PerformanceMeasure measure = new PerformanceMeasure(CURRENT_MEASURE.get(), name, nanoTimeSupplier, resourceMeter);
+    setCurrent(measure);
+    return new RecordedDuration(measure);
   }
 
   public static Duration start(Object object) {
-    if (currentMeasure == null)  {
+    if (CURRENT_MEASURE.get() == null)  {
       return NO_OP_DURATION;
     }
     return start(object.getClass().getSimpleName());
   }
 
   public static Duration start(String name) {
+    PerformanceMeasure currentMeasure = CURRENT_MEASURE.get();
     if (currentMeasure == null)  {
       return NO_OP_DURATION;
     }
@@ -94,17 +148,72 @@ public class PerformanceMeasure {
       return new RecordedDuration(currentMeasure);
     }
     currentMeasure = currentMeasure.getOrCreateChild(name);
+    setCurrent(currentMeasure);
     return new RecordedDuration(currentMeasure);
   }
 
+  /**
+   * Starts the measure of the analysis of a file. It does not change the current measure: the cost of the file is only
+   * recorded with the root measure, which keeps the files having the highest cost. The measures started by the current thread
+   * until the returned duration is stopped are also recorded as children of the measure of the file.
+   */
+  public static Duration startFile(String file) {
+    PerformanceMeasure currentMeasure = CURRENT_MEASURE.get();
+    if (currentMeasure == null)  {
+      return NO_OP_DURATION;
+    }
+    PerformanceMeasure root = currentMeasure.root();
+    return new FileDuration(root, currentMeasure, new PerformanceMeasure(null, file, root.nanoTimeSupplier, root.resourceMeter, null, false));
+  }
+
+  /**
+   * @return the measure in progress of the current thread, to be continued by tasks executed by other threads, see {@link #fork(PerformanceMeasure)}
+   */
+  @CheckForNull
+  public static PerformanceMeasure current() {
+    return CURRENT_MEASURE.get();
+  }
+
+  /**
+   * Continues on the current thread the given measure of another thread, until the returned duration is stopped. The measures
+   * started meanwhile are recorded in a tree of the current thread, and merged as children of the given measure when the root
+   * measure is stopped.
+   */
+  public static Duration fork(@Nullable PerformanceMeasure measure) {
+    if (measure == null) {
+      return NO_OP_DURATION;
+    }
+    Map<PerformanceMeasure, PerformanceMeasure> threadForks = measure.root().forks.computeIfAbsent(Thread.currentThread(), thread -> new HashMap<>());
+    PerformanceMeasure threadMeasure = threadForks.computeIfAbsent(measure,
+      forked -> new PerformanceMeasure(null, forked.name, forked.nanoTimeSupplier, forked.resourceMeter, forked, false));
+    return new ForkedDuration(threadMeasure, CURRENT_MEASURE.get());
+  }
+
   public static void setCurrent(@Nullable PerformanceMeasure measure) {
-    currentMeasure = measure;
+    if (measure == null) {
+      CURRENT_MEASURE.remove();
+    } else {
+      CURRENT_MEASURE.set(measure);
+    }
   }
 
   public PerformanceMeasure(@Nullable PerformanceMeasure parent, String name, Supplier<Long> nanoTimeSupplier) {
+    this(parent, name, nanoTimeSupplier, null);
+  }
+
+  public PerformanceMeasure(@Nullable PerformanceMeasure parent, String name, Supplier<Long> nanoTimeSupplier, @Nullable ResourceMeter resourceMeter) {
+    this(parent, name, nanoTimeSupplier, resourceMeter, null, parent == null);
+  }
+
+  private PerformanceMeasure(@Nullable PerformanceMeasure parent, String name, Supplier<Long> nanoTimeSupplier, @Nullable ResourceMeter resourceMeter,
+    @Nullable PerformanceMeasure forkedFrom, boolean root) {
     this.parent = parent;
     this.name = name;
     this.nanoTimeSupplier = nanoTimeSupplier;
+    this.resourceMeter = resourceMeter;
+    this.forkedFrom = forkedFrom;
+    this.forks = root ? new ConcurrentHashMap<>() : null;
+    this.fileMeasures = root ? new PriorityQueue<>(Comparator.comparingLong(PerformanceMeasure::cost)) : null;
   }
 
   public final void add(long durationNanos) {
@@ -112,6 +221,13 @@ public class PerformanceMeasure {
     callsCount++;
   }
 
+  private void add(long durationNanos, long cpuNanos, long allocatedBytes) {
+    add(durationNanos);
+    this.resourcesMeasured = true;
+    this.cpuNanos += cpuNanos;
+    this.allocatedBytes += allocatedBytes;
+  }
+
   public Collection<PerformanceMeasure> children() {
     return childrenMap != null ? childrenMap.values() : Collections.emptyList();
   }
@@ -120,7 +236,19 @@ public class PerformanceMeasure {
     if (childrenMap == null) {
       childrenMap = new HashMap<>();
     }
-    return childrenMap.computeIfAbsent(name, n -> new PerformanceMeasure(this, n, nanoTimeSupplier));
+    return childrenMap.computeIfAbsent(name, n -> new PerformanceMeasure(this, n, nanoTimeSupplier, resourceMeter));
+  }
+
+  private PerformanceMeasure root() {
+    PerformanceMeasure measure = this;
+    while (measure.parent != null || measure.forkedFrom != null) {
+      measure = measure.parent != null ? measure.parent : measure.forkedFrom;
+    }
+    return measure;
+  }
+
+  private long cost() {
+    return resourcesMeasured ? cpuNanos : totalDurationNanos;
   }
 
   private PerformanceMeasure merge(PerformanceMeasure measure) throws IOException {
@@ -129,10 +257,58 @@ public class PerformanceMeasure {
     }
     totalDurationNanos += measure.totalDurationNanos;
     callsCount += measure.callsCount;
+    mergeResources(measure);
+    mergeChildren(measure);
+    if (fileMeasures != null && measure.fileMeasures != null) {
+      measure.fileMeasures.forEach(this::addFileMeasure);
+    }
+    return this;
+  }
+
+  private void mergeResources(PerformanceMeasure measure) {
+    resourcesMeasured |= measure.resourcesMeasured;
+    cpuNanos += measure.cpuNanos;
+    allocatedBytes += measure.allocatedBytes;
+  }
+
+  private void mergeChildren(PerformanceMeasure measure) throws IOException {
     for (PerformanceMeasure child : measure.children()) {
       getOrCreateChild(child.name).merge(child);
     }
-    return this;
+  }
+
+  /**
+   * Merges the measures of the other threads into the measures they continue, the measures continuing measures of another
+   * thread first. Should only be called once the other threads are done.
+   */
+  private void mergeForks() throws IOException {
+    List<PerformanceMeasure> threadMeasures = new ArrayList<>();
+    forks.values().forEach(threadForks -> threadMeasures.addAll(threadForks.values()));
+    forks.clear();
+    threadMeasures.sort(Comparator.comparingInt(PerformanceMeasure::forkDepth).reversed());
+    for (PerformanceMeasure threadMeasure : threadMeasures) {
+      threadMeasure.forkedFrom.mergeChildren(threadMeasure);
+    }
+  }
+
+  private int forkDepth() {
+    int depth = 0;
+    PerformanceMeasure measure = this;
+    while (measure != null) {
+      while (measure.parent != null) {
+        measure = measure.parent;
+      }
+      measure = measure.forkedFrom;
+      depth++;
+    }
+    return depth;
+  }
+
+  private synchronized void addFileMeasure(PerformanceMeasure fileMeasure) {
+    fileMeasures.add(fileMeasure);
+    if (fileMeasures.size() > MAX_FILE_MEASURES) {
+      fileMeasures.poll();
+    }
   }
 
   public interface Duration {
@@ -143,6 +319,100 @@ public class PerformanceMeasure {
     void stopAndLog(@Nullable File workDir, boolean appendMeasurementCost);
   }
 
+  /**
+   * Resources consumed by the current thread, as monotonic counters
+   */
+  public interface ResourceMeter {
+    long cpuTimeNanos();
+
+    long allocatedBytes();
+
+    /**
+     * Called when a measure using this meter starts, before reading any counter
+     */
+    default void enable() {
+      // nothing to enable by default
+    }
+
+    /**
+     * Called when a measure using this meter is stopped, to restore the state preceding the matching {@link #enable()}
+     */
+    default void restore() {
+      // nothing to restore by default
+    }
+  }
+
+  /**
+   * The measurement of the threads is a setting of the whole JVM: it is only enabled while measures are recorded, and its
+   * previous state is restored once the last of these measures is stopped.
+   */
+  private static final class ThreadResourceMeter implements ResourceMeter {
+
+    private int enabledCount = 0;
+    private boolean cpuTimeWasEnabled;
+    private boolean allocatedMemoryWasEnabled;
+
+    @Override
+    public long cpuTimeNanos() {
+      ThreadMXBean threadMXBean = ThreadMXBeans.THREAD;
+      return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    @Override
+    public long allocatedBytes() {
+      com.sun.management.ThreadMXBean allocationMXBean = ThreadMXBeans.ALLOCATION;
+      return allocationMXBean != null ? allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    @Override
+    public synchronized void enable() {
+      enabledCount++;
+      if (enabledCount > 1) {
+        return;
+      }
+      ThreadMXBean threadMXBean = ThreadMXBeans.THREAD;
+      if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+        cpuTimeWasEnabled = threadMXBean.isThreadCpuTimeEnabled();
+        threadMXBean.setThreadCpuTimeEnabled(true);
+      }
+      com.sun.management.ThreadMXBean allocationMXBean = ThreadMXBeans.ALLOCATION;
+      if (allocationMXBean != null) {
+        allocatedMemoryWasEnabled = allocationMXBean.isThreadAllocatedMemoryEnabled();
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+      }
+    }
+
+    @Override
+    public synchronized void restore() {
+      if (enabledCount == 0) {
+        return;
+      }
+      enabledCount--;
+      if (enabledCount > 0) {
+        return;
+      }
+      ThreadMXBean threadMXBean = ThreadMXBeans.THREAD;
+      if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+        threadMXBean.setThreadCpuTimeEnabled(cpuTimeWasEnabled);
+      }
+      com.sun.management.ThreadMXBean allocationMXBean = ThreadMXBeans.ALLOCATION;
+      if (allocationMXBean != null) {
+        allocationMXBean.setThreadAllocatedMemoryEnabled(allocatedMemoryWasEnabled);
+      }
+    }
+  }
+
+  private static final class ThreadMXBeans {
+
+    private static final ThreadMXBean THREAD = ManagementFactory.getThreadMXBean();
+    @Nullable
+    private static final com.sun.management.ThreadMXBean ALLOCATION = THREAD instanceof com.sun.management.ThreadMXBean
+      && ((com.sun.management.ThreadMXBean) THREAD).isThreadAllocatedMemorySupported() ? (com.sun.management.ThreadMXBean) THREAD : null;
+
+    private ThreadMXBeans() {
+    }
+  }
+
   private static final class IgnoredDuration implements Duration, DurationReport {
     @Override
     public void stop() {
@@ -155,6 +425,122 @@ public class PerformanceMeasure {
     }
   }
 
+  /**
+   * Duration, CPU time and allocated bytes spent by the current thread since the creation of the instance
+   */
+  private static class Cost {
+
+    private final PerformanceMeasure measure;
+    private long startNanos;
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+
+    Cost(PerformanceMeasure measure) {
+      this.measure = measure;
+      ResourceMeter resourceMeter = measure.resourceMeter;
+      this.startCpuNanos = resourceMeter != null ? resourceMeter.cpuTimeNanos() : 0;
+      this.startAllocatedBytes = resourceMeter != null ? resourceMeter.allocatedBytes() : 0;
+      // last, not to measure the resource meter
+      this.startNanos = measure.nanoTimeSupplier.get();
+    }
+
+    boolean isRecorded() {
+      return startNanos == -1;
+    }
+
+    /**
+     * @param fileMeasure measure of the file being analyzed, also recording the cost when not null
+     * @return false if the cost has already been recorded
+     */
+    boolean record(@Nullable PerformanceMeasure fileMeasure) {
+      if (isRecorded()) {
+        return false;
+      }
+      long durationNanos = measure.nanoTimeSupplier.get() - startNanos;
+      startNanos = -1;
+      ResourceMeter resourceMeter = measure.resourceMeter;
+      if (resourceMeter != null) {
+        long cpuNanos = resourceMeter.cpuTimeNanos() - startCpuNanos;
+        long allocatedBytes = resourceMeter.allocatedBytes() - startAllocatedBytes;
+        measure.add(durationNanos, cpuNanos, allocatedBytes);
+        if (fileMeasure != null) {
+          fileMeasure.add(durationNanos, cpuNanos, allocatedBytes);
+        }
+      } else {
+        measure.add(durationNanos);
+        if (fileMeasure != null) {
+          fileMeasure.add(durationNanos);
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class FileDuration implements Duration {
+
+    private final PerformanceMeasure root;
+    /**
+     * Measure in progress when the file started, whose descendants are recorded as children of the measure of the file
+     */
+    private final PerformanceMeasure base;
+    @Nullable
+    private final FileDuration previous;
+    private final Cost cost;
+
+    private FileDuration(PerformanceMeasure root, PerformanceMeasure base, PerformanceMeasure fileMeasure) {
+      this.root = root;
+      this.base = base;
+      this.previous = CURRENT_FILE.get();
+      this.cost = new Cost(fileMeasure);
+      CURRENT_FILE.set(this);
+    }
+
+    /**
+     * @return the child of the measure of the file matching the given measure, null if it is not a descendant of the base
+     */
+    @CheckForNull
+    private PerformanceMeasure fileMeasure(@Nullable PerformanceMeasure measure) {
+      if (measure == base) {
+        return cost.measure;
+      }
+      if (measure == null) {
+        return null;
+      }
+      PerformanceMeasure parentFileMeasure = fileMeasure(measure.parent);
+      return parentFileMeasure != null ? parentFileMeasure.getOrCreateChild(measure.name) : null;
+    }
+
+    @Override
+    public void stop() {
+      if (cost.record(null)) {
+        if (previous != null) {
+          CURRENT_FILE.set(previous);
+        } else {
+          CURRENT_FILE.remove();
+        }
+        root.addFileMeasure(cost.measure);
+      }
+    }
+  }
+
+  private static final class ForkedDuration extends RecordedDuration {
+
+    @Nullable
+    private final PerformanceMeasure previous;
+
+    private ForkedDuration(PerformanceMeasure threadMeasure, @Nullable PerformanceMeasure previous) {
+      super(threadMeasure);
+      this.previous = previous;
+      setCurrent(threadMeasure);
+    }
+
+    @CheckForNull
+    @Override
+    PerformanceMeasure measureAfterStop() {
+      return previous;
+    }
+  }
+
   private static class RecordedDuration implements Duration, DurationReport {
 
     private static final String PARENT_OF_THROWAWAY_MEASURES_TO_COMPUTE_OBSERVATION_COST = "#measures to compute observation cost";
@@ -162,20 +548,26 @@ public class PerformanceMeasure {
     private static final Supplier<IntStream> SAMPLES = () -> IntStream.range(0, SAMPLING_COUNT_TO_EVALUATE_OBSERVATION_COST);
 
     private final PerformanceMeasure measure;
-    private long startNanos;
+    private final Cost cost;
 
     public RecordedDuration(PerformanceMeasure measure) {
       this.measure = measure;
-      this.startNanos = measure.nanoTimeSupplier.get();
+      this.cost = new Cost(measure);
+    }
+
+    @CheckForNull
+    PerformanceMeasure measureAfterStop() {
+      return measure.parent;
     }
 
     @Override
     public void stop() {
-      if (startNanos != -1) {
-        measure.add(measure.nanoTimeSupplier.get() - startNanos);
-        startNanos = -1;
-        setCurrent(measure.parent);
+      if (cost.isRecorded()) {
+        return;
       }
+      FileDuration file = CURRENT_FILE.get();
+      cost.record(file != null && measure != file.base ? file.fileMeasure(measure) : null);
+      setCurrent(measureAfterStop());
     }
 
     @Override
@@ -185,6 +577,14 @@ public class PerformanceMeasure {
         appendMeasurementCost();
       }
       stop();
+      if (measure.resourceMeter != null) {
+        measure.resourceMeter.restore();
+      }
+      try {
+        measure.root().mergeForks();
+      } catch (IOException e) {
+        LOG.error("Can't merge performance measures of threads: " + e.getMessage());
+      }
       saveToFile(workDir, measure);
       if (LOG.isDebugEnabled()) {
         LOG.debug("Performance Measures:\n" + jsonFormat(toJson(measure)));
@@ -194,8 +594,9 @@ public class PerformanceMeasure {
     private static void appendMeasurementCost() {
       String[] sampleNames = SAMPLES.get().mapToObj(i -> "m" + i).toArray(String[]::new);
       Duration totalDuration = start("#MeasurementCost_v1");
-      PerformanceMeasure measurementCost = currentMeasure;
+      PerformanceMeasure measurementCost = CURRENT_MEASURE.get();
       Duration temporaryDuration = start(PARENT_OF_THROWAWAY_MEASURES_TO_COMPUTE_OBSERVATION_COST);
+      PerformanceMeasure throwawayMeasures = CURRENT_MEASURE.get();
       measurementCost.getOrCreateChild("nanoTime").add(median(SAMPLES.get().mapToLong(i -> {
         long start = System.nanoTime();
         return System.nanoTime() - start;
@@ -206,7 +607,7 @@ public class PerformanceMeasure {
         return System.nanoTime() - start;
       })));
       measurementCost.getOrCreateChild("observationCost").add(median(Arrays.stream(sampleNames)
-        .map(n -> currentMeasure.childrenMap.get(n)).mapToLong(m -> m.totalDurationNanos)));
+        .map(n -> throwawayMeasures.childrenMap.get(n)).mapToLong(m -> m.totalDurationNanos)));
       start("measure").stop();
       measurementCost.getOrCreateChild("incrementChild").add(median(SAMPLES.get().mapToLong(i -> {
         long start = System.nanoTime();
@@ -245,16 +646,53 @@ public class PerformanceMeasure {
           ensureParentDirectoryExists(performanceFile);
         }
         Files.write(performanceFile, jsonFormat(toJson(allMeasures)).getBytes(UTF_8));
+        saveFoldedStacks(performanceFile, allMeasures);
       } catch (IOException e) {
         LOG.error("Can't save performance measure: " + e.getMessage());
       }
     }
 
+    /**
+     * Saves, next to the JSON file, the measures in the "folded stacks" format of flame graph tools: one line by measure,
+     * with the names of the measures from the root separated by ';' followed by the value of the measure minus the values
+     * of its children.
+     */
+    private static void saveFoldedStacks(Path performanceFile, PerformanceMeasure measure) throws IOException {
+      String fileName = performanceFile.getFileName().toString();
+      String baseName = fileName.endsWith(".json") ? fileName.substring(0, fileName.length() - ".json".length()) : fileName;
+      Files.write(performanceFile.resolveSibling(baseName + ".wall.folded"), foldedStacks(measure, m -> m.totalDurationNanos).getBytes(UTF_8));
+      if (measure.resourcesMeasured) {
+        Files.write(performanceFile.resolveSibling(baseName + ".cpu.folded"), foldedStacks(measure, m -> m.cpuNanos).getBytes(UTF_8));
+        Files.write(performanceFile.resolveSibling(baseName + ".alloc.folded"), foldedStacks(measure, m -> m.allocatedBytes).getBytes(UTF_8));
+      }
+    }
+
+    private static String foldedStacks(PerformanceMeasure measure, ToLongFunction<PerformanceMeasure> value) {
+      StringBuilder foldedStacks = new StringBuilder();
+      appendFoldedStacks(foldedStacks, "", measure, value);
+      return foldedStacks.toString();
+    }
+
+    private static void appendFoldedStacks(StringBuilder foldedStacks, String parentStack, PerformanceMeasure measure, ToLongFunction<PerformanceMeasure> value) {
+      String stack = parentStack + measure.name.replace(';', '_');
+      long selfValue = value.applyAsLong(measure) - measure.children().stream().mapToLong(value).sum();
+      if (selfValue > 0) {
+        foldedStacks.append(stack).append(' ').append(selfValue).append('\n');
+      }
+      measure.children().stream()
+        .sorted(Comparator.comparing(e -> e.name))
+        .forEach(child -> appendFoldedStacks(foldedStacks, stack + ";", child, value));
+    }
+
     private static JsonObject toJson(PerformanceMeasure measure) {
       JsonObject jsonObject = new JsonObject();
       jsonObject.addProperty("name", measure.name);
       jsonObject.addProperty("calls", measure.callsCount);
       jsonObject.addProperty("durationNanos", measure.totalDurationNanos);
+      if (measure.resourcesMeasured) {
+        jsonObject.addProperty("cpuNanos", measure.cpuNanos);
+        jsonObject.addProperty("allocatedBytes", measure.allocatedBytes);
+      }
       Collection<PerformanceMeasure> children = measure.children();
       if (!children.isEmpty()) {
         jsonObject.add("children", children.stream()
@@ -262,27 +700,50 @@ public class PerformanceMeasure {
           .map(RecordedDuration::toJson)
           .collect(JsonArray::new, JsonArray::add, JsonArray::addAll));
       }
+      if (measure.fileMeasures != null && !measure.fileMeasures.isEmpty()) {
+        jsonObject.add("files", measure.fileMeasures.stream()
+          .sorted(Comparator.comparingLong(PerformanceMeasure::cost).reversed().thenComparing(e -> e.name))
+          .map(RecordedDuration::toJson)
+          .collect(JsonArray::new, JsonArray::add, JsonArray::addAll));
+      }
       return jsonObject;
     }
 
     private static PerformanceMeasure fromJson(Path performanceFile) throws IOException {
       JsonObject jsonObject = new Gson().fromJson(new String(Files.readAllBytes(performanceFile), UTF_8), JsonObject.class);
-      return fromJson(jsonObject, null);
+      PerformanceMeasure measure = fromJson(jsonObject, new PerformanceMeasure(null, name(jsonObject), System::nanoTime));
+      JsonArray files = jsonObject.getAsJsonArray("files");
+      if (files != null) {
+        for (JsonElement jsonFile : files) {
+          JsonObject jsonFileObject = jsonFile.getAsJsonObject();
+          measure.addFileMeasure(fromJson(jsonFileObject, new PerformanceMeasure(null, name(jsonFileObject), System::nanoTime, null, null, false)));
+        }
+      }
+      return measure;
     }
 
-    private static PerformanceMeasure fromJson(JsonObject jsonObject, @Nullable PerformanceMeasure parent) {
-      String name = jsonObject.getAsJsonPrimitive("name").getAsString();
-      PerformanceMeasure measure = parent != null ? parent.getOrCreateChild(name) :
-        new PerformanceMeasure(null, name, System::nanoTime);
+    private static PerformanceMeasure fromJson(JsonObject jsonObject, PerformanceMeasure measure) {
       measure.callsCount = jsonObject.getAsJsonPrimitive("calls").getAsLong();
       measure.totalDurationNanos = jsonObject.getAsJsonPrimitive("durationNanos").getAsLong();
+      if (jsonObject.has("cpuNanos")) {
+        measure.resourcesMeasured = true;
+        measure.cpuNanos = jsonObject.getAsJsonPrimitive("cpuNanos").getAsLong();
+        measure.allocatedBytes = jsonObject.getAsJsonPrimitive("allocatedBytes").getAsLong();
+      }
       JsonArray children = jsonObject.getAsJsonArray("children");
       if (children != null) {
-        children.forEach(jsonChild -> fromJson(jsonChild.getAsJsonObject(), measure));
+        for (JsonElement jsonChild : children) {
+          JsonObject jsonChildObject = jsonChild.getAsJsonObject();
+          fromJson(jsonChildObject, measure.getOrCreateChild(name(jsonChildObject)));
+        }
       }
       return measure;
     }
 
+    private static String name(JsonObject jsonObject) {
+      return jsonObject.getAsJsonPrimitive("name").getAsString();
+    }
+
     private static String jsonFormat(JsonObject jsonObject) {
       String json = new GsonBuilder()
         .setPrettyPrinting()
@@ -290,7 +751,7 @@ public class PerformanceMeasure {
         .toJson(jsonObject);
       // reduce the number of lines by inlining some of the properties
       return json
-        .replaceAll("\n *+(\"(?:name|calls|durationNanos|children)\":)", " $1")
+        .replaceAll("\n *+(\"(?:name|calls|durationNanos|cpuNanos|allocatedBytes|children)\":)", " $1")
         .replaceAll("(\\d)\n *+\\}", "$1 }");
     }
 
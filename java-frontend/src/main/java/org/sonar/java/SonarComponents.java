@@ -67,6 +67,8 @@ public class SonarComponents {
   private static final int LOGGED_MAX_NUMBER_UNDEFINED_TYPES = 50;
 
   public static final String FAIL_ON_EXCEPTION_KEY = "sonar.internal.analysis.failFast";
+  public static final String ANALYSIS_THREADS_KEY = "sonar.java.analysis.threads";
+  public static final String ANALYSIS_BATCH_SIZE_KEY = "sonar.java.analysis.batchSize";
 
   private final FileLinesContextFactory fileLinesContextFactory;
 
@@ -321,6 +323,20 @@ public class SonarComponents {
     return context.config().getBoolean(FAIL_ON_EXCEPTION_KEY).orElse(false);
   }
 
+  /**
+   * @return the number of threads to use to parse files, 1 (sequential analysis) when not configured
+   */
+  public int analysisThreads() {
+    return context.config().getInt(ANALYSIS_THREADS_KEY).filter(threads -> threads > 0).orElse(1);
+  }
+
+  /**
+   * @return the maximum number of files of a same directory to resolve together, 1 (files resolved one by one) when not configured
+   */
+  public int analysisBatchSize() {
+    return context.config().getInt(ANALYSIS_BATCH_SIZE_KEY).filter(size -> size > 0).orElse(1);
+  }
+
   public File workDir() {
     ProjectDefinition current = projectDefinition;
     if(current == null) {
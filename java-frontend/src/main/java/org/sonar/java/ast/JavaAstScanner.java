@@ -20,15 +20,33 @@
 package org.sonar.java.ast;
 
 import com.sonar.sslr.api.RecognitionException;
+import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.net.URI;
 import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.eclipse.jdt.core.dom.ClasspathNameEnvironment;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
@@ -40,6 +58,7 @@ import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.model.JParser;
 import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.model.SourceText;
 import org.sonar.java.model.VisitorsBridge;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonarsource.analyzer.commons.ProgressReport;
@@ -53,9 +72,20 @@ public class JavaAstScanner {
     + " Please check that property '%s' is correctly configured (currently set to: %d) or exclude 'module-info.java' files from analysis."
     + " Such files only exist in Java9+ projects.";
 
+  /**
+   * Maximum number of files parsed ahead of the file currently visited, per parsing thread.
+   * Bounds the number of ASTs kept in memory when parsing in parallel.
+   */
+  private static final int PARSED_FILES_AHEAD_PER_THREAD = 2;
+
   private final SonarComponents sonarComponents;
   private VisitorsBridge visitor;
   private boolean reportedMisconfiguredVersion = false;
+  /**
+   * Name environments used to resolve semantic, shared by all the files parsed on a given thread during a call to {@link #scan(Iterable)}
+   */
+  private final List<ClasspathNameEnvironment> environments = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<ClasspathNameEnvironment> threadEnvironment = ThreadLocal.withInitial(this::createEnvironment);
 
   public JavaAstScanner(@Nullable SonarComponents sonarComponents) {
     this.sonarComponents = sonarComponents;
@@ -69,15 +99,20 @@ public class JavaAstScanner {
     boolean cancelled = false;
     ExecutionTimeReport executionTimeReport = new ExecutionTimeReport(Clock.systemUTC());
     try {
-      for (InputFile inputFile : inputFiles) {
-        if (analysisCancelled()) {
-          cancelled = true;
-          break;
+      int analysisThreads = analysisThreads();
+      int analysisBatchSize = analysisBatchSize();
+      if (analysisThreads > 1) {
+        cancelled = !scanInParallel(inputFiles, analysisThreads, executionTimeReport, progressReport);
+      } else if (analysisBatchSize > 1) {
+        cancelled = !scanInBatches(inputFiles, analysisBatchSize, executionTimeReport, progressReport);
+      } else {
+        for (InputFile inputFile : inputFiles) {
+          if (analysisCancelled()) {
+            cancelled = true;
+            break;
+          }
+          scanAlone(inputFile, executionTimeReport, progressReport);
         }
-        executionTimeReport.start(inputFile);
-        simpleScan(inputFile);
-        executionTimeReport.end();
-        progressReport.nextFile();
       }
       successfullyCompleted = !cancelled;
     } finally {
@@ -87,11 +122,24 @@ public class JavaAstScanner {
         progressReport.cancel();
       }
       executionTimeReport.report();
+      releaseEnvironments();
       visitor.endOfAnalysis();
       logUndefinedTypes();
     }
   }
 
+  private ClasspathNameEnvironment createEnvironment() {
+    ClasspathNameEnvironment environment = JParser.createEnvironment(visitor.getClasspath());
+    environments.add(environment);
+    return environment;
+  }
+
+  private void releaseEnvironments() {
+    environments.forEach(ClasspathNameEnvironment::release);
+    environments.clear();
+    threadEnvironment.remove();
+  }
+
   private void logUndefinedTypes() {
     if (sonarComponents != null) {
       sonarComponents.logUndefinedTypes();
@@ -102,31 +150,180 @@ public class JavaAstScanner {
     return sonarComponents != null && sonarComponents.analysisCancelled();
   }
 
-  private void simpleScan(InputFile inputFile) {
-    visitor.setCurrentFile(inputFile);
-    PerformanceMeasure.Duration parseDuration = PerformanceMeasure.start("JParser");
+  /**
+   * Files are parsed by a pool of threads, while the visitors are still executed one file at a time, on the calling thread,
+   * in the order of the given files. Checks are therefore not required to be thread-safe and reported issues stay deterministic.
+   *
+   * @return false if the analysis has been cancelled
+   */
+  private boolean scanInParallel(Iterable<? extends InputFile> inputFiles, int analysisThreads, ExecutionTimeReport executionTimeReport,
+    ProgressReport progressReport) {
+    ExecutorService executor = Executors.newFixedThreadPool(analysisThreads, new ParserThreadFactory());
+    Deque<ParsingFile> parsingFiles = new ArrayDeque<>();
+    Iterator<? extends InputFile> inputFilesIterator = inputFiles.iterator();
+    PerformanceMeasure parsingMeasure = PerformanceMeasure.current();
     try {
-      String version;
-      JavaVersion javaVersion = visitor.getJavaVersion();
-      if (javaVersion == null || javaVersion.asInt() < 0) {
-        version = /* default */ JParser.MAXIMUM_SUPPORTED_JAVA_VERSION;
-      } else if ("module-info.java".equals(inputFile.filename()) && javaVersion.asInt() <= 8) {
-        logMisconfiguredVersion(inputFile, javaVersion);
-        version = /* default */ JParser.MAXIMUM_SUPPORTED_JAVA_VERSION;
-      } else {
-        version = Integer.toString(javaVersion.asInt());
+      while (inputFilesIterator.hasNext() || !parsingFiles.isEmpty()) {
+        if (analysisCancelled()) {
+          return false;
+        }
+        while (parsingFiles.size() < analysisThreads * PARSED_FILES_AHEAD_PER_THREAD && inputFilesIterator.hasNext()) {
+          InputFile inputFile = inputFilesIterator.next();
+          String version = javaVersionToParse(inputFile);
+          parsingFiles.add(new ParsingFile(inputFile, executor.submit(() -> parseInThread(inputFile, version, parsingMeasure))));
+        }
+        ParsingFile parsingFile = parsingFiles.remove();
+        executionTimeReport.start(parsingFile.inputFile);
+        executionTimeReport.end(scanAst(parsingFile.inputFile, parsingFile::ast));
+        progressReport.nextFile();
+      }
+      return true;
+    } finally {
+      shutdown(executor);
+    }
+  }
+
+  private static void shutdown(ExecutorService executor) {
+    executor.shutdownNow();
+    try {
+      // wait for the parsing threads to stop before releasing their environments
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private int analysisThreads() {
+    return sonarComponents != null ? sonarComponents.analysisThreads() : 1;
+  }
+
+  /**
+   * Consecutive files of a same directory are resolved together by one compiler pass, by batches of at most {@code batchSize} files.
+   * Visitors are executed on each file as soon as it has been resolved, in the order of the given files.
+   *
+   * @return false if the analysis has been cancelled
+   */
+  private boolean scanInBatches(Iterable<? extends InputFile> inputFiles, int batchSize, ExecutionTimeReport executionTimeReport,
+    ProgressReport progressReport) {
+    List<InputFile> batch = new ArrayList<>();
+    String batchVersion = null;
+    URI batchDirectory = null;
+    for (InputFile inputFile : inputFiles) {
+      String version = javaVersionToParse(inputFile);
+      URI directory = inputFile.uri().resolve(".");
+      if (!batch.isEmpty() && (batch.size() == batchSize || !version.equals(batchVersion) || !directory.equals(batchDirectory))) {
+        if (!scanBatch(batch, batchVersion, executionTimeReport, progressReport)) {
+          return false;
+        }
+        batch.clear();
+      }
+      batch.add(inputFile);
+      batchVersion = version;
+      batchDirectory = directory;
+    }
+    return batch.isEmpty() || scanBatch(batch, batchVersion, executionTimeReport, progressReport);
+  }
+
+  private boolean scanBatch(List<InputFile> batch, String version, ExecutionTimeReport executionTimeReport, ProgressReport progressReport) {
+    if (analysisCancelled()) {
+      return false;
+    }
+    Map<String, InputFile> inputFilesByUnitName = new LinkedHashMap<>();
+    Map<String, String> sources = new LinkedHashMap<>();
+    ClasspathNameEnvironment environment = null;
+    try {
+      for (InputFile inputFile : batch) {
+        sources.put(inputFile.filename(), inputFile.contents());
+        inputFilesByUnitName.put(inputFile.filename(), inputFile);
+      }
+      environment = threadEnvironment.get();
+    } catch (IOException | RuntimeException e) {
+      // failure is reported for each file, as if they were scanned one by one
+    }
+    if (environment == null) {
+      batch.forEach(inputFile -> scanAlone(inputFile, executionTimeReport, progressReport));
+      return true;
+    }
+    JParser.parseAsBatch(version, sources, environment, (unitName, parsing) -> {
+      InputFile inputFile = inputFilesByUnitName.get(unitName);
+      executionTimeReport.start(inputFile);
+      executionTimeReport.end(scanAst(inputFile, () -> (JavaTree.CompilationUnitTreeImpl) parsing.get()));
+      progressReport.nextFile();
+    });
+    return true;
+  }
+
+  private void scanAlone(InputFile inputFile, ExecutionTimeReport executionTimeReport, ProgressReport progressReport) {
+    executionTimeReport.start(inputFile);
+    executionTimeReport.end(simpleScan(inputFile));
+    progressReport.nextFile();
+  }
+
+  private int analysisBatchSize() {
+    return sonarComponents != null ? sonarComponents.analysisBatchSize() : 1;
+  }
+
+  @Nullable
+  private SourceText simpleScan(InputFile inputFile) {
+    String version = javaVersionToParse(inputFile);
+    return scanAst(inputFile, () -> {
+      PerformanceMeasure.Duration parseDuration = PerformanceMeasure.start("JParser");
+      try {
+        return parse(inputFile, version);
+      } finally {
+        parseDuration.stop();
       }
-      JavaTree.CompilationUnitTreeImpl ast = (JavaTree.CompilationUnitTreeImpl) JParser.parse(
-        version,
-        inputFile.filename(),
-        inputFile.contents(),
-        visitor.getClasspath()
-      );
+    });
+  }
+
+  /**
+   * Measures of the parsing threads are recorded as if the files were parsed by the thread running the visitors
+   */
+  private JavaTree.CompilationUnitTreeImpl parseInThread(InputFile inputFile, String version, @Nullable PerformanceMeasure parsingMeasure) throws IOException {
+    PerformanceMeasure.Duration threadDuration = PerformanceMeasure.fork(parsingMeasure);
+    PerformanceMeasure.Duration parseDuration = PerformanceMeasure.start("JParser");
+    try {
+      return parse(inputFile, version);
+    } finally {
       parseDuration.stop();
+      threadDuration.stop();
+    }
+  }
+
+  private String javaVersionToParse(InputFile inputFile) {
+    JavaVersion javaVersion = visitor.getJavaVersion();
+    if (javaVersion == null || javaVersion.asInt() < 0) {
+      return /* default */ JParser.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    } else if ("module-info.java".equals(inputFile.filename()) && javaVersion.asInt() <= 8) {
+      logMisconfiguredVersion(inputFile, javaVersion);
+      return /* default */ JParser.MAXIMUM_SUPPORTED_JAVA_VERSION;
+    }
+    return Integer.toString(javaVersion.asInt());
+  }
+
+  private JavaTree.CompilationUnitTreeImpl parse(InputFile inputFile, String version) throws IOException {
+    return (JavaTree.CompilationUnitTreeImpl) JParser.parse(
+      version,
+      inputFile.filename(),
+      inputFile.contents(),
+      threadEnvironment.get()
+    );
+  }
+
+  /**
+   * @return source of the scanned file, null when the file could not be parsed
+   */
+  @Nullable
+  private SourceText scanAst(InputFile inputFile, Callable<JavaTree.CompilationUnitTreeImpl> parsing) {
+    visitor.setCurrentFile(inputFile);
+    PerformanceMeasure.Duration fileDuration = PerformanceMeasure.startFile(inputFile.toString());
+    try {
+      JavaTree.CompilationUnitTreeImpl ast = parsing.call();
       visitor.visitFile(ast);
       collectUndefinedTypes(ast.sema.undefinedTypes());
-      // release environment used for semantic resolution
+      // no-op with a shared environment, which is released at the end of the scan
       ast.sema.cleanupEnvironment();
+      return ast.sourceText;
     } catch (RecognitionException e) {
       checkInterrupted(e);
       LOG.error(String.format(LOG_ERROR_UNABLE_TO_PARSE_FILE, inputFile));
@@ -142,9 +339,9 @@ public class JavaAstScanner {
       LOG.error(String.format(LOG_ERROR_STACKOVERFLOW, inputFile), error);
       throw error;
     } finally {
-      // redundant stop in case of exception
-      parseDuration.stop();
+      fileDuration.stop();
     }
+    return null;
   }
 
   private void collectUndefinedTypes(Set<String> undefinedTypes) {
@@ -189,6 +386,43 @@ public class JavaAstScanner {
     this.visitor = visitor;
   }
 
+  private static class ParsingFile {
+    private final InputFile inputFile;
+    private final Future<JavaTree.CompilationUnitTreeImpl> ast;
+
+    ParsingFile(InputFile inputFile, Future<JavaTree.CompilationUnitTreeImpl> ast) {
+      this.inputFile = inputFile;
+      this.ast = ast;
+    }
+
+    JavaTree.CompilationUnitTreeImpl ast() throws Exception {
+      try {
+        return ast.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AnalysisException("Analysis cancelled", e);
+      } catch (ExecutionException e) {
+        // rethrow the failure of the parsing thread, to be handled as if the file had been parsed on the current thread
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw (Exception) cause;
+      }
+    }
+  }
+
+  private static class ParserThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "sonar-java-parser-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
   @VisibleForTesting
   public static void scanSingleFileForTests(InputFile file, VisitorsBridge visitorsBridge) {
     scanSingleFileForTests(file, visitorsBridge, new JavaVersionImpl(), null);
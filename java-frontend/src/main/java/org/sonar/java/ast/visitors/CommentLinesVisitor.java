@@ -40,10 +40,17 @@ public class CommentLinesVisitor extends SubscriptionVisitor {
   }
 
   public void analyzeCommentLines(CompilationUnitTree tree) {
+    clear();
+    scanTree(tree);
+  }
+
+  /**
+   * Prepares the visitor to analyze a new file, when its tokens are given by another visitor through {@link #visitToken(SyntaxToken)}.
+   */
+  public void clear() {
     comments.clear();
     noSonarLines.clear();
     seenFirstToken = false;
-    scanTree(tree);
   }
 
   @Override
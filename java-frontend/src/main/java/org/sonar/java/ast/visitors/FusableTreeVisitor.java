@@ -0,0 +1,53 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.ast.visitors;
+
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+
+/**
+ * Tree visitor which can share its walk of the tree with other visitors: unless this visitor overrides {@link #scanFile(JavaFileScannerContext)}
+ * or one of the {@code scan} methods, the visitors bridge does not call {@link #scanFile(JavaFileScannerContext)} but runs all such visitors
+ * in a single walk of the tree, following the same steps: {@link #setContext(JavaFileScannerContext)}, visit of the tree, then
+ * {@link #leaveFile(JavaFileScannerContext)}.
+ * <p>
+ * While walking the tree, each visitor is called back only on the nodes for which it overrides the visit method: it is then in charge
+ * of the whole subtree, exactly as when it runs on its own, and the shared walk only goes on in the subtree for the other visitors.
+ * Visitors keeping state which can not follow such a walk opt out by overriding {@link #scanFile(JavaFileScannerContext)}.
+ */
+public abstract class FusableTreeVisitor extends BaseTreeVisitor implements JavaFileScanner {
+
+  public void setContext(JavaFileScannerContext context) {
+    //default behaviour is to do nothing
+  }
+
+  public void leaveFile(JavaFileScannerContext context) {
+    //default behaviour is to do nothing
+  }
+
+  @Override
+  public void scanFile(JavaFileScannerContext context) {
+    setContext(context);
+    scan(context.getTree());
+    leaveFile(context);
+  }
+
+}
@@ -66,10 +66,16 @@ public abstract class SubscriptionVisitor implements JavaFileScanner {
     //default behaviour is to do nothing
   }
 
+  /**
+   * Visit of the file when this visitor is used on its own. Unless this method is overridden, the visitors bridge does not
+   * call it, but serves all the subscription visitors with a single walk of the tree, following the same steps:
+   * {@link #setContext(JavaFileScannerContext)}, visit of the subscribed nodes, then {@link #leaveFile(JavaFileScannerContext)}.
+   */
   @Override
   public void scanFile(JavaFileScannerContext context) {
     setContext(context);
     scanTree(context.getTree());
+    leaveFile(context);
   }
 
   protected void scanTree(Tree tree) {
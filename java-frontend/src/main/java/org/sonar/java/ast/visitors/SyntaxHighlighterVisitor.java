@@ -78,11 +78,13 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
     highlighting = sonarComponents.highlightableFor(context.getInputFile());
+  }
 
-    super.scanFile(context);
-
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     highlighting.save();
   }
 
@@ -20,7 +20,6 @@
 package org.sonar.java.cfg;
 
 import org.sonar.java.collections.ListUtils;
-import org.sonar.java.collections.SetUtils;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -35,11 +34,13 @@ import org.sonar.plugins.java.api.tree.VariableTree;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -49,9 +50,19 @@ import static org.sonar.java.model.JUtils.isLocalVariable;
 public class LiveVariables {
 
   private final CFG cfg;
+  private final boolean includeFields;
+  /**
+   * Blocks numbered by their position in reversed order, out and in sets of the i-th block are indexed by i
+   */
+  private final Map<CFG.Block, Integer> blockIndexes = new HashMap<>();
+  /**
+   * Analyzed symbols numbered by their bit in out and in sets
+   */
+  private final List<Symbol> symbols = new ArrayList<>();
+  private BitSet[] outBits;
+  private BitSet[] inBits;
   private final Map<CFG.Block, Set<Symbol>> out = new HashMap<>();
   private final Map<CFG.Block, Set<Symbol>> in = new HashMap<>();
-  private final boolean includeFields;
 
   private LiveVariables(CFG cfg, boolean includeFields) {
     this.cfg = cfg;
@@ -59,11 +70,28 @@ public class LiveVariables {
   }
 
   public Set<Symbol> getOut(CFG.Block block) {
-    return out.get(block);
+    return view(block, out, outBits);
   }
 
   public Set<Symbol> getIn(CFG.Block block) {
-    return in.get(block);
+    return view(block, in, inBits);
+  }
+
+  /**
+   * Sets of symbols are only built on request, from the bits computed by the analysis.
+   */
+  @CheckForNull
+  private Set<Symbol> view(CFG.Block block, Map<CFG.Block, Set<Symbol>> views, BitSet[] bits) {
+    Integer index = blockIndexes.get(block);
+    if (index == null) {
+      return null;
+    }
+    return views.computeIfAbsent(block, b -> {
+      BitSet blockBits = bits[index];
+      Set<Symbol> result = new HashSet<>(blockBits.cardinality());
+      blockBits.stream().forEach(i -> result.add(symbols.get(i)));
+      return Collections.unmodifiableSet(result);
+    });
   }
 
   /**
@@ -82,51 +110,102 @@ public class LiveVariables {
 
   private static LiveVariables analyze(CFG cfg, boolean includeFields) {
     LiveVariables liveVariables = new LiveVariables(cfg, includeFields);
+    List<CFG.Block> blocks = cfg.reversedBlocks();
+    int blockCount = blocks.size();
     // Generate kill/gen for each block in isolation
-    Map<CFG.Block, Set<Symbol>> kill = new HashMap<>();
-    Map<CFG.Block, Set<Symbol>> gen = new HashMap<>();
-    for (CFG.Block block : liveVariables.cfg.reversedBlocks()) {
+    Map<Symbol, Integer> symbolIndexes = new HashMap<>();
+    BitSet[] kill = new BitSet[blockCount];
+    BitSet[] gen = new BitSet[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      CFG.Block block = blocks.get(i);
+      liveVariables.blockIndexes.put(block, i);
       Set<Symbol> blockKill = new HashSet<>();
       Set<Symbol> blockGen = new HashSet<>();
       liveVariables.processBlockElements(block, blockKill, blockGen);
-      kill.put(block, blockKill);
-      gen.put(block, blockGen);
+      kill[i] = liveVariables.bits(blockKill, symbolIndexes);
+      gen[i] = liveVariables.bits(blockGen, symbolIndexes);
     }
-    liveVariables.analyzeCFG(liveVariables.in, kill, gen);
+    liveVariables.analyzeCFG(blocks, kill, gen);
     // out of exit block are empty by definition.
-    if (!liveVariables.out.get(liveVariables.cfg.reversedBlocks().get(0)).isEmpty()) {
+    if (!liveVariables.outBits[0].isEmpty()) {
       throw new IllegalStateException("Out of exit block should be empty");
     }
+    return liveVariables;
+  }
 
-    // Make things immutable.
-    for (Map.Entry<CFG.Block, Set<Symbol>> blockSetEntry : liveVariables.out.entrySet()) {
-      blockSetEntry.setValue(Collections.unmodifiableSet(blockSetEntry.getValue()));
+  private BitSet bits(Set<Symbol> blockSymbols, Map<Symbol, Integer> symbolIndexes) {
+    BitSet result = new BitSet();
+    for (Symbol symbol : blockSymbols) {
+      result.set(symbolIndexes.computeIfAbsent(symbol, k -> {
+        symbols.add(k);
+        return symbols.size() - 1;
+      }));
     }
-
-    return liveVariables;
+    return result;
   }
 
-  private void analyzeCFG(Map<CFG.Block, Set<Symbol>> in, Map<CFG.Block, Set<Symbol>> kill, Map<CFG.Block, Set<Symbol>> gen) {
-    Deque<CFG.Block> workList = new LinkedList<>();
-    workList.addAll(cfg.reversedBlocks());
-    while (!workList.isEmpty()) {
-      CFG.Block block = workList.removeFirst();
+  private void analyzeCFG(List<CFG.Block> blocks, BitSet[] kill, BitSet[] gen) {
+    int blockCount = blocks.size();
+    outBits = new BitSet[blockCount];
+    inBits = new BitSet[blockCount];
+    int[][] successors = new int[blockCount][];
+    int[][] predecessors = new int[blockCount][];
+    for (int i = 0; i < blockCount; i++) {
+      CFG.Block block = blocks.get(i);
+      successors[i] = indexes(ListUtils.concat(block.successors(), block.exceptions()));
+      predecessors[i] = indexes(block.predecessors());
+      outBits[i] = new BitSet();
+    }
+    // FIFO of blocks to process, a block is queued at most once at a time
+    int[] workList = new int[blockCount];
+    boolean[] queued = new boolean[blockCount];
+    for (int i = 0; i < blockCount; i++) {
+      workList[i] = i;
+      queued[i] = true;
+    }
+    int head = 0;
+    int size = blockCount;
+    BitSet newIn = new BitSet();
+    while (size > 0) {
+      int block = workList[head];
+      head = (head + 1) % blockCount;
+      size--;
+      queued[block] = false;
 
-      Set<Symbol> blockOut = out.computeIfAbsent(block, k -> new HashSet<>());
-      block.successors().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      block.exceptions().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
+      BitSet blockOut = outBits[block];
+      for (int successor : successors[block]) {
+        if (inBits[successor] != null) {
+          blockOut.or(inBits[successor]);
+        }
+      }
       // in = gen and (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen.get(block));
-      newIn.addAll(SetUtils.difference(blockOut, kill.get(block)));
+      newIn.clear();
+      newIn.or(blockOut);
+      newIn.andNot(kill[block]);
+      newIn.or(gen[block]);
 
-      if (newIn.equals(in.get(block))) {
+      if (newIn.equals(inBits[block])) {
         continue;
       }
-      in.put(block, newIn);
-      block.predecessors().forEach(workList::addLast);
+      inBits[block] = (BitSet) newIn.clone();
+      for (int predecessor : predecessors[block]) {
+        if (!queued[predecessor]) {
+          queued[predecessor] = true;
+          workList[(head + size) % blockCount] = predecessor;
+          size++;
+        }
+      }
     }
   }
 
+  private int[] indexes(Collection<CFG.Block> blocks) {
+    return blocks.stream()
+      .map(blockIndexes::get)
+      .filter(Objects::nonNull)
+      .mapToInt(Integer::intValue)
+      .toArray();
+  }
+
   private void processBlockElements(CFG.Block block, Set<Symbol> blockKill, Set<Symbol> blockGen) {
     // process elements from bottom to top
     Set<Tree> assignmentLHS = new HashSet<>();
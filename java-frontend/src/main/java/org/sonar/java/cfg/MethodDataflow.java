@@ -0,0 +1,87 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.cfg;
+
+import java.util.Map;
+import org.sonar.java.model.declaration.MethodTreeImpl;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * CFG of a method body and the dataflow analyses computed on it. Each result is computed once, on first request,
+ * and shared by all the checks and the symbolic execution engine.
+ * <p>
+ * Attached to the method tree, see {@link MethodTreeImpl#dataflow()}, so it is released along with the tree once the file has been analyzed.
+ */
+public final class MethodDataflow {
+
+  private final CFG cfg;
+  private LiveVariables liveVariables;
+  private LiveVariables liveVariablesWithFields;
+  private Map<Tree, CFGLoop> loops;
+
+  public MethodDataflow(CFG cfg) {
+    this.cfg = cfg;
+  }
+
+  /**
+   * @param methodTree a method having a body
+   */
+  public static MethodDataflow of(MethodTree methodTree) {
+    if (methodTree instanceof MethodTreeImpl) {
+      return ((MethodTreeImpl) methodTree).dataflow();
+    }
+    return new MethodDataflow(CFG.build(methodTree));
+  }
+
+  public CFG cfg() {
+    return cfg;
+  }
+
+  /**
+   * @see LiveVariables#analyze(CFG)
+   */
+  public LiveVariables liveVariables() {
+    if (liveVariables == null) {
+      liveVariables = LiveVariables.analyze(cfg);
+    }
+    return liveVariables;
+  }
+
+  /**
+   * @see LiveVariables#analyzeWithFields(CFG)
+   */
+  public LiveVariables liveVariablesWithFields() {
+    if (liveVariablesWithFields == null) {
+      liveVariablesWithFields = LiveVariables.analyzeWithFields(cfg);
+    }
+    return liveVariablesWithFields;
+  }
+
+  /**
+   * @see CFGLoop#getCFGLoops(CFG)
+   */
+  public Map<Tree, CFGLoop> loops() {
+    if (loops == null) {
+      loops = CFGLoop.getCFGLoops(cfg);
+    }
+    return loops;
+  }
+}
@@ -0,0 +1,564 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import org.sonar.java.annotations.VisibleForTesting;
+
+/**
+ * Compressed Hash-Array Mapped Prefix-tree (CHAMP).
+ *
+ * https://michael.steindorfer.name/publications/oopsla15.pdf
+ *
+ * Each node consumes 5 bits of the hash code of the keys: entries are inlined in the node as long as no other key shares the same
+ * hash prefix, otherwise they are moved to a sub-node. Keys having the same hash code are stored in collision nodes, at the bottom
+ * of the tree. Sub-nodes holding a single entry are always inlined back in their parent: the shape of the tree only depends on its
+ * content, so that two tries are equal if and only if their nodes are equal, which is cheap when nodes are shared.
+ * <p>
+ * As in {@link AVLTree}, keys are the same only if they have the same hash code and are equal.
+ */
+final class HashTrie<K, V> implements PMap<K, V>, PSet<K> {
+
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int HASH_CODE_LENGTH = 32;
+
+  @SuppressWarnings("rawtypes")
+  private static final HashTrie EMPTY = new HashTrie<>(BitmapNode.EMPTY, 0, 0);
+
+  private final Node root;
+  private final int size;
+  /**
+   * Same as {@link AVLTree#hashCode()}: sum of the hash codes of the entries, maintained on each update.
+   */
+  private final int hashCode;
+
+  private HashTrie(Node root, int size, int hashCode) {
+    this.root = root;
+    this.size = size;
+    this.hashCode = hashCode;
+  }
+
+  /**
+   * @return empty trie
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> HashTrie<K, V> create() {
+    return EMPTY;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public HashTrie<K, V> add(K e) {
+    Objects.requireNonNull(e);
+    return put(e, (V) e);
+  }
+
+  @Override
+  public boolean contains(K k) {
+    return get(k) != null;
+  }
+
+  @Override
+  public HashTrie<K, V> put(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    Change change = new Change();
+    Node newRoot = root.put(key, value, key.hashCode(), 0, change);
+    if (newRoot == root) {
+      return this;
+    }
+    int entryHashCode = entryHashCode(key, value);
+    if (change.previousValue == null) {
+      return new HashTrie<>(newRoot, size + 1, hashCode + entryHashCode);
+    }
+    return new HashTrie<>(newRoot, size, hashCode + entryHashCode - entryHashCode(key, change.previousValue));
+  }
+
+  @Override
+  public HashTrie<K, V> remove(K key) {
+    Objects.requireNonNull(key);
+    Change change = new Change();
+    Node newRoot = root.remove(key, key.hashCode(), 0, change);
+    if (newRoot == root) {
+      return this;
+    }
+    if (size == 1) {
+      return create();
+    }
+    return new HashTrie<>(newRoot, size - 1, hashCode - entryHashCode(key, change.previousValue));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nullable
+  @Override
+  public V get(K key) {
+    Objects.requireNonNull(key);
+    return (V) root.get(key, key.hashCode(), 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void forEach(Consumer<K> action) {
+    root.forEach((k, v) -> action.accept((K) k));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void forEach(BiConsumer<K, V> action) {
+    root.forEach((k, v) -> action.accept((K) k, (V) v));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @VisibleForTesting
+  int size() {
+    return size;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof HashTrie) {
+      HashTrie<?, ?> other = (HashTrie<?, ?>) obj;
+      return size == other.size && hashCode == other.hashCode && root.equals(other.root);
+    }
+    return false;
+  }
+
+  /**
+   * Same representation as {@link AVLTree#toString()}, entries being sorted by hash code of keys.
+   */
+  @Override
+  public String toString() {
+    List<Object[]> entries = new ArrayList<>(size);
+    root.forEach((k, v) -> entries.add(new Object[] {k, v}));
+    entries.sort(Comparator.comparingInt(entry -> entry[0].hashCode()));
+    StringBuilder sb = new StringBuilder();
+    entries.forEach(entry -> sb.append(' ').append(entry[0]).append("->").append(entry[1]));
+    return sb.toString();
+  }
+
+  private static int entryHashCode(Object key, Object value) {
+    // the key is multiplied by 31 to avoid K ^ V == 0 when K == V in case of set
+    return (31 * key.hashCode()) ^ value.hashCode();
+  }
+
+  private static int mask(int hash, int shift) {
+    return (hash >>> shift) & ((1 << BITS_PER_LEVEL) - 1);
+  }
+
+  private static int bitpos(int mask) {
+    return 1 << mask;
+  }
+
+  /**
+   * Value replaced or removed by an update, null when a new entry has been added
+   */
+  private static class Change {
+    @Nullable
+    Object previousValue;
+  }
+
+  private abstract static class Node {
+
+    abstract Node put(Object key, Object value, int hash, int shift, Change change);
+
+    abstract Node remove(Object key, int hash, int shift, Change change);
+
+    @Nullable
+    abstract Object get(Object key, int hash, int shift);
+
+    abstract void forEach(BiConsumer<Object, Object> action);
+
+    /**
+     * @return number of entries of this node, without the ones of its sub-nodes
+     */
+    abstract int size();
+
+    abstract boolean hasNodes();
+
+    abstract Object key(int index);
+
+    abstract Object value(int index);
+
+    static Node mergeTwo(Object key0, Object value0, int hash0, Object key1, Object value1, int hash1, int shift) {
+      if (shift >= HASH_CODE_LENGTH) {
+        return new CollisionNode(new Object[] {key0, key1}, new Object[] {value0, value1});
+      }
+      int mask0 = mask(hash0, shift);
+      int mask1 = mask(hash1, shift);
+      if (mask0 != mask1) {
+        int dataMap = bitpos(mask0) | bitpos(mask1);
+        if (mask0 < mask1) {
+          return new BitmapNode(dataMap, 0, new Object[] {key0, value0, key1, value1});
+        }
+        return new BitmapNode(dataMap, 0, new Object[] {key1, value1, key0, value0});
+      }
+      Node node = mergeTwo(key0, value0, hash0, key1, value1, hash1, shift + BITS_PER_LEVEL);
+      return new BitmapNode(0, bitpos(mask0), new Object[] {node});
+    }
+  }
+
+  /**
+   * Entries are stored first in the content array, as key-value pairs, followed by the sub-nodes in reverse order.
+   */
+  private static final class BitmapNode extends Node {
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+    private final int dataMap;
+    private final int nodeMap;
+    private final Object[] content;
+
+    BitmapNode(int dataMap, int nodeMap, Object[] content) {
+      this.dataMap = dataMap;
+      this.nodeMap = nodeMap;
+      this.content = content;
+    }
+
+    @Override
+    Node put(Object key, Object value, int hash, int shift, Change change) {
+      int bitpos = bitpos(mask(hash, shift));
+      if ((dataMap & bitpos) != 0) {
+        int index = dataIndex(bitpos);
+        Object currentKey = content[2 * index];
+        Object currentValue = content[2 * index + 1];
+        if (currentKey.hashCode() == hash && key.equals(currentKey)) {
+          if (currentValue.equals(value)) {
+            return this;
+          }
+          change.previousValue = currentValue;
+          Object[] newContent = content.clone();
+          newContent[2 * index + 1] = value;
+          return new BitmapNode(dataMap, nodeMap, newContent);
+        }
+        Node node = mergeTwo(currentKey, currentValue, currentKey.hashCode(), key, value, hash, shift + BITS_PER_LEVEL);
+        return copyAndMigrateFromInlineToNode(bitpos, node);
+      }
+      if ((nodeMap & bitpos) != 0) {
+        Node node = nodeAt(bitpos);
+        Node newNode = node.put(key, value, hash, shift + BITS_PER_LEVEL, change);
+        return newNode == node ? this : copyAndSetNode(bitpos, newNode);
+      }
+      return copyAndInsertValue(bitpos, key, value);
+    }
+
+    @Override
+    Node remove(Object key, int hash, int shift, Change change) {
+      int bitpos = bitpos(mask(hash, shift));
+      if ((dataMap & bitpos) != 0) {
+        int index = dataIndex(bitpos);
+        Object currentKey = content[2 * index];
+        if (currentKey.hashCode() != hash || !key.equals(currentKey)) {
+          return this;
+        }
+        change.previousValue = content[2 * index + 1];
+        return copyAndRemoveValue(bitpos);
+      }
+      if ((nodeMap & bitpos) != 0) {
+        Node node = nodeAt(bitpos);
+        Node newNode = node.remove(key, hash, shift + BITS_PER_LEVEL, change);
+        if (newNode == node) {
+          return this;
+        }
+        if (newNode.size() == 1 && !newNode.hasNodes()) {
+          // keep the trie canonical: a single entry is inlined in the parent node
+          return copyAndMigrateFromNodeToInline(bitpos, newNode);
+        }
+        return copyAndSetNode(bitpos, newNode);
+      }
+      return this;
+    }
+
+    @Nullable
+    @Override
+    Object get(Object key, int hash, int shift) {
+      int bitpos = bitpos(mask(hash, shift));
+      if ((dataMap & bitpos) != 0) {
+        int index = dataIndex(bitpos);
+        Object currentKey = content[2 * index];
+        return currentKey.hashCode() == hash && key.equals(currentKey) ? content[2 * index + 1] : null;
+      }
+      if ((nodeMap & bitpos) != 0) {
+        return nodeAt(bitpos).get(key, hash, shift + BITS_PER_LEVEL);
+      }
+      return null;
+    }
+
+    @Override
+    void forEach(BiConsumer<Object, Object> action) {
+      int dataLength = 2 * Integer.bitCount(dataMap);
+      for (int i = 0; i < dataLength; i += 2) {
+        action.accept(content[i], content[i + 1]);
+      }
+      for (int i = content.length - 1; i >= dataLength; i--) {
+        ((Node) content[i]).forEach(action);
+      }
+    }
+
+    @Override
+    int size() {
+      return Integer.bitCount(dataMap);
+    }
+
+    @Override
+    boolean hasNodes() {
+      return nodeMap != 0;
+    }
+
+    @Override
+    Object key(int index) {
+      return content[2 * index];
+    }
+
+    @Override
+    Object value(int index) {
+      return content[2 * index + 1];
+    }
+
+    private int dataIndex(int bitpos) {
+      return Integer.bitCount(dataMap & (bitpos - 1));
+    }
+
+    private int nodeIndex(int bitpos) {
+      return Integer.bitCount(nodeMap & (bitpos - 1));
+    }
+
+    private Node nodeAt(int bitpos) {
+      return (Node) content[content.length - 1 - nodeIndex(bitpos)];
+    }
+
+    private BitmapNode copyAndSetNode(int bitpos, Node node) {
+      Object[] newContent = content.clone();
+      newContent[content.length - 1 - nodeIndex(bitpos)] = node;
+      return new BitmapNode(dataMap, nodeMap, newContent);
+    }
+
+    private BitmapNode copyAndInsertValue(int bitpos, Object key, Object value) {
+      int index = 2 * dataIndex(bitpos);
+      Object[] newContent = new Object[content.length + 2];
+      System.arraycopy(content, 0, newContent, 0, index);
+      newContent[index] = key;
+      newContent[index + 1] = value;
+      System.arraycopy(content, index, newContent, index + 2, content.length - index);
+      return new BitmapNode(dataMap | bitpos, nodeMap, newContent);
+    }
+
+    private BitmapNode copyAndRemoveValue(int bitpos) {
+      int index = 2 * dataIndex(bitpos);
+      Object[] newContent = new Object[content.length - 2];
+      System.arraycopy(content, 0, newContent, 0, index);
+      System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+      return new BitmapNode(dataMap ^ bitpos, nodeMap, newContent);
+    }
+
+    private BitmapNode copyAndMigrateFromInlineToNode(int bitpos, Node node) {
+      int oldIndex = 2 * dataIndex(bitpos);
+      int newIndex = content.length - 2 - nodeIndex(bitpos);
+      Object[] newContent = new Object[content.length - 1];
+      System.arraycopy(content, 0, newContent, 0, oldIndex);
+      System.arraycopy(content, oldIndex + 2, newContent, oldIndex, newIndex - oldIndex);
+      newContent[newIndex] = node;
+      System.arraycopy(content, newIndex + 2, newContent, newIndex + 1, content.length - newIndex - 2);
+      return new BitmapNode(dataMap ^ bitpos, nodeMap | bitpos, newContent);
+    }
+
+    private BitmapNode copyAndMigrateFromNodeToInline(int bitpos, Node node) {
+      int oldIndex = content.length - 1 - nodeIndex(bitpos);
+      int newIndex = 2 * dataIndex(bitpos);
+      Object[] newContent = new Object[content.length + 1];
+      System.arraycopy(content, 0, newContent, 0, newIndex);
+      newContent[newIndex] = node.key(0);
+      newContent[newIndex + 1] = node.value(0);
+      System.arraycopy(content, newIndex, newContent, newIndex + 2, oldIndex - newIndex);
+      System.arraycopy(content, oldIndex + 1, newContent, oldIndex + 2, content.length - oldIndex - 1);
+      return new BitmapNode(dataMap | bitpos, nodeMap ^ bitpos, newContent);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * dataMap + nodeMap;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof BitmapNode)) {
+        return false;
+      }
+      BitmapNode other = (BitmapNode) obj;
+      if (dataMap != other.dataMap || nodeMap != other.nodeMap) {
+        return false;
+      }
+      int dataLength = 2 * Integer.bitCount(dataMap);
+      for (int i = 0; i < content.length; i++) {
+        // shared sub-nodes and values are compared by reference first
+        Object element = content[i];
+        Object otherElement = other.content[i];
+        if (element != otherElement
+          && ((i < dataLength && i % 2 == 0 && element.hashCode() != otherElement.hashCode()) || !element.equals(otherElement))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Entries of keys having the same hash code, in insertion order.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final Object[] keys;
+    private final Object[] values;
+
+    CollisionNode(Object[] keys, Object[] values) {
+      this.keys = keys;
+      this.values = values;
+    }
+
+    @Override
+    Node put(Object key, Object value, int hash, int shift, Change change) {
+      int index = indexOf(key);
+      if (index >= 0) {
+        if (values[index].equals(value)) {
+          return this;
+        }
+        change.previousValue = values[index];
+        Object[] newValues = values.clone();
+        newValues[index] = value;
+        return new CollisionNode(keys, newValues);
+      }
+      Object[] newKeys = new Object[keys.length + 1];
+      Object[] newValues = new Object[values.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, keys.length);
+      System.arraycopy(values, 0, newValues, 0, values.length);
+      newKeys[keys.length] = key;
+      newValues[values.length] = value;
+      return new CollisionNode(newKeys, newValues);
+    }
+
+    @Override
+    Node remove(Object key, int hash, int shift, Change change) {
+      int index = indexOf(key);
+      if (index < 0) {
+        return this;
+      }
+      change.previousValue = values[index];
+      Object[] newKeys = new Object[keys.length - 1];
+      Object[] newValues = new Object[values.length - 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+      System.arraycopy(values, 0, newValues, 0, index);
+      System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+      return new CollisionNode(newKeys, newValues);
+    }
+
+    @Nullable
+    @Override
+    Object get(Object key, int hash, int shift) {
+      int index = indexOf(key);
+      return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    void forEach(BiConsumer<Object, Object> action) {
+      for (int i = 0; i < keys.length; i++) {
+        action.accept(keys[i], values[i]);
+      }
+    }
+
+    @Override
+    int size() {
+      return keys.length;
+    }
+
+    @Override
+    boolean hasNodes() {
+      return false;
+    }
+
+    @Override
+    Object key(int index) {
+      return keys[index];
+    }
+
+    @Override
+    Object value(int index) {
+      return values[index];
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (key.equals(keys[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public int hashCode() {
+      return keys.length;
+    }
+
+    /**
+     * Order of the entries depends on the order of insertion, which is not taken into account.
+     */
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CollisionNode)) {
+        return false;
+      }
+      CollisionNode other = (CollisionNode) obj;
+      if (keys.length != other.keys.length) {
+        return false;
+      }
+      for (int i = 0; i < keys.length; i++) {
+        int index = other.indexOf(keys[i]);
+        if (index < 0 || !values[i].equals(other.values[index])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
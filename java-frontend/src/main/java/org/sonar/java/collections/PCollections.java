@@ -21,15 +21,22 @@ package org.sonar.java.collections;
 
 public final class PCollections {
 
+  /**
+   * System property to back persistent sets and maps by a {@link HashTrie} instead of an {@link AVLTree}.
+   */
+  public static final String HASH_TRIE_PROPERTY = "sonar.java.collections.hashTrie";
+
+  private static final boolean USE_HASH_TRIE = Boolean.getBoolean(HASH_TRIE_PROPERTY);
+
   private PCollections() {
   }
 
   public static <E> PSet<E> emptySet() {
-    return AVLTree.create();
+    return USE_HASH_TRIE ? HashTrie.create() : AVLTree.create();
   }
 
   public static <E, V> PMap<E, V> emptyMap() {
-    return AVLTree.create();
+    return USE_HASH_TRIE ? HashTrie.create() : AVLTree.create();
   }
 
   public static <E> PStack<E> emptyStack() {
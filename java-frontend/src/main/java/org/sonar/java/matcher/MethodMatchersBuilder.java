@@ -20,8 +20,11 @@
 package org.sonar.java.matcher;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -50,16 +53,29 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   @Nullable
   private final Predicate<List<Type>> parametersPredicate;
 
+  /**
+   * Names accepted by the name predicate, null when it can accept any name. Used by {@link MethodMatchersIndex}.
+   */
+  @Nullable
+  private final Set<String> knownNames;
+
+  /**
+   * Numbers of parameters accepted by the parameters predicate, null when it can accept any number of parameters.
+   */
+  @Nullable
+  private final Set<Integer> knownParametersCounts;
+
   public MethodMatchersBuilder() {
-    this.typePredicate = null;
-    this.namePredicate = null;
-    this.parametersPredicate = null;
+    this(null, null, null, null, null);
   }
 
-  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate) {
+  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate,
+    @Nullable Set<String> knownNames, @Nullable Set<Integer> knownParametersCounts) {
     this.typePredicate = typePredicate;
     this.namePredicate = namePredicate;
     this.parametersPredicate = parametersPredicate;
+    this.knownNames = knownNames;
+    this.knownParametersCounts = knownParametersCounts;
   }
 
   private static <T> Predicate<T> substituteAny(Predicate<T> predicate, String... elements) {
@@ -111,15 +127,16 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public NameBuilder ofType(Predicate<Type> typePredicate) {
-    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate);
+    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate, knownNames, knownParametersCounts);
   }
 
   @Override
   public ParametersBuilder names(String... names) {
-    return name(substituteAnyAndCreateEfficientPredicate(
+    Predicate<String> predicate = substituteAnyAndCreateEfficientPredicate(
       names,
       name -> name::equals,
-      nameList -> nameList::contains));
+      nameList -> nameList::contains);
+    return name(predicate, Arrays.asList(names).contains(ANY) ? null : Arrays.asList(names));
   }
 
   @Override
@@ -134,7 +151,12 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public ParametersBuilder name(Predicate<String> namePredicate) {
-    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate);
+    return name(namePredicate, null);
+  }
+
+  private ParametersBuilder name(Predicate<String> namePredicate, @Nullable Collection<String> names) {
+    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate,
+      union(this.namePredicate, knownNames, names), knownParametersCounts);
   }
 
   @Override
@@ -145,7 +167,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   }
 
   private ParametersBuilder addParametersMatcher(List<Predicate<Type>> parametersType) {
-    return addParametersMatcher((List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes));
+    return addParametersMatcher((List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes), Collections.singleton(parametersType.size()));
   }
 
   @Override
@@ -163,7 +185,35 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public ParametersBuilder addParametersMatcher(Predicate<List<Type>> parametersPredicate) {
-    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate));
+    return addParametersMatcher(parametersPredicate, null);
+  }
+
+  private ParametersBuilder addParametersMatcher(Predicate<List<Type>> parametersPredicate, @Nullable Collection<Integer> parametersCounts) {
+    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate),
+      knownNames, union(this.parametersPredicate, knownParametersCounts, parametersCounts));
+  }
+
+  /**
+   * Values accepted by a predicate after being combined with another one, null meaning that any value can be accepted.
+   */
+  @CheckForNull
+  private static <T> Set<T> union(@Nullable Predicate<?> previousPredicate, @Nullable Set<T> previousValues, @Nullable Collection<T> values) {
+    if (values == null || (previousPredicate != null && previousValues == null)) {
+      return null;
+    }
+    Set<T> union = previousPredicate != null ? new HashSet<>(previousValues) : new HashSet<>();
+    union.addAll(values);
+    return Collections.unmodifiableSet(union);
+  }
+
+  @CheckForNull
+  Set<String> knownNames() {
+    return knownNames;
+  }
+
+  @CheckForNull
+  Set<Integer> knownParametersCounts() {
+    return knownParametersCounts;
   }
 
   private static boolean exactMatchesParameters(List<Predicate<Type>> expectedTypes, List<Type> actualTypes) {
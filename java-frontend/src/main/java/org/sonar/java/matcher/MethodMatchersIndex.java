@@ -0,0 +1,141 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.matcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodReferenceTree;
+import org.sonar.plugins.java.api.tree.NewClassTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Finds at once which subscribers have a {@link MethodMatchers} matching a method invocation, a constructor call or a method reference.
+ * <p>
+ * Matchers created with {@link MethodMatchers#create()} are indexed by the names they accept, and skipped when they do not accept the
+ * number of parameters of the invoked method: only the few ones which can match are evaluated. {@link MethodMatchers#or(List)} are
+ * indexed through the matchers they combine, other matchers are evaluated for every invocation.
+ */
+public final class MethodMatchersIndex<T> {
+
+  private final Map<String, List<Entry<T>>> entriesByName = new HashMap<>();
+  private final List<Entry<T>> entriesOfAnyName = new ArrayList<>();
+  private final List<Entry<T>> otherEntries = new ArrayList<>();
+
+  public void add(MethodMatchers matchers, T subscriber) {
+    if (matchers instanceof MethodMatchersList) {
+      ((MethodMatchersList) matchers).matchers().forEach(matcher -> add(matcher, subscriber));
+    } else if (matchers instanceof MethodMatchersBuilder) {
+      MethodMatchersBuilder builder = (MethodMatchersBuilder) matchers;
+      Entry<T> entry = new Entry<>(matchers, builder.knownParametersCounts(), subscriber);
+      Set<String> names = builder.knownNames();
+      if (names == null) {
+        entriesOfAnyName.add(entry);
+      } else {
+        names.forEach(name -> entriesByName.computeIfAbsent(name, k -> new ArrayList<>()).add(entry));
+      }
+    } else if (!(matchers instanceof NoneMethodMatchers)) {
+      otherEntries.add(new Entry<>(matchers, null, subscriber));
+    }
+  }
+
+  /**
+   * @param tree a method invocation, a constructor call or a method reference
+   * @return the subscribers having a matcher matching the tree
+   */
+  public Set<T> matching(Tree tree) {
+    Set<T> matching = new HashSet<>();
+    Symbol symbol = invokedSymbol(tree);
+    // matchers created with MethodMatchers.create() only match method symbols
+    if (symbol != null && symbol.isMethodSymbol()) {
+      int parametersCount = ((Symbol.MethodSymbol) symbol).parameterTypes().size();
+      addMatching(entriesByName.getOrDefault(symbol.name(), Collections.emptyList()), tree, parametersCount, matching);
+      addMatching(entriesOfAnyName, tree, parametersCount, matching);
+    }
+    addMatching(otherEntries, tree, -1, matching);
+    return matching;
+  }
+
+  private static <T> void addMatching(List<Entry<T>> entries, Tree tree, int parametersCount, Set<T> matching) {
+    for (Entry<T> entry : entries) {
+      if (!matching.contains(entry.subscriber)
+        && (entry.parametersCounts == null || entry.parametersCounts.contains(parametersCount))
+        && matches(entry.matchers, tree)) {
+        matching.add(entry.subscriber);
+      }
+    }
+  }
+
+  private static boolean matches(MethodMatchers matchers, Tree tree) {
+    switch (tree.kind()) {
+      case METHOD_INVOCATION:
+        return matchers.matches((MethodInvocationTree) tree);
+      case NEW_CLASS:
+        return matchers.matches((NewClassTree) tree);
+      case METHOD_REFERENCE:
+        return matchers.matches((MethodReferenceTree) tree);
+      default:
+        return false;
+    }
+  }
+
+  @CheckForNull
+  private static Symbol invokedSymbol(Tree tree) {
+    switch (tree.kind()) {
+      case METHOD_INVOCATION:
+        // same symbol as the one checked by MethodMatchersBuilder
+        Tree methodSelect = ((MethodInvocationTree) tree).methodSelect();
+        if (methodSelect.is(Tree.Kind.MEMBER_SELECT)) {
+          return ((MemberSelectExpressionTree) methodSelect).identifier().symbol();
+        }
+        return ((IdentifierTree) methodSelect).symbol();
+      case NEW_CLASS:
+        return ((NewClassTree) tree).constructorSymbol();
+      case METHOD_REFERENCE:
+        return ((MethodReferenceTree) tree).method().symbol();
+      default:
+        return null;
+    }
+  }
+
+  private static final class Entry<T> {
+    private final MethodMatchers matchers;
+    @Nullable
+    private final Set<Integer> parametersCounts;
+    private final T subscriber;
+
+    private Entry(MethodMatchers matchers, @Nullable Set<Integer> parametersCounts, T subscriber) {
+      this.matchers = matchers;
+      this.parametersCounts = parametersCounts;
+      this.subscriber = subscriber;
+    }
+  }
+}
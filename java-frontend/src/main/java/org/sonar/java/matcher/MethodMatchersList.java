@@ -36,6 +36,10 @@ public class MethodMatchersList implements MethodMatchers {
     this.matchers = new ArrayList<>(matchers);
   }
 
+  List<? extends MethodMatchers> matchers() {
+    return matchers;
+  }
+
   @Override
   public boolean matches(NewClassTree newClassTree) {
     return matchers.stream().anyMatch(matcher -> matcher.matches(newClassTree));
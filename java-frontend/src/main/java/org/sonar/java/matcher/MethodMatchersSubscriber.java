@@ -0,0 +1,36 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.matcher;
+
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+
+/**
+ * A subscription visitor on which visiting method invocations, constructor calls and method references has an effect only when
+ * they match its {@link #subscribedMatchers()}: {@link org.sonar.java.model.VisitorsBridge} then only calls it back for the
+ * matching ones, found once for all the visitors by a {@link MethodMatchersIndex}.
+ */
+public interface MethodMatchersSubscriber {
+
+  /**
+   * @return matchers of all the method invocations, constructor calls and method references on which visitNode and leaveNode have an effect
+   */
+  MethodMatchers subscribedMatchers();
+
+}
@@ -196,11 +196,19 @@ public class DefaultJavaFileScannerContext implements JavaFileScannerContext, Re
 
   @Override
   public List<String> getFileLines() {
+    SourceText sourceText = tree.sourceText;
+    if (sourceText != null) {
+      return new ArrayList<>(sourceText.lines());
+    }
     return sonarComponents.fileLines(inputFile);
   }
 
   @Override
   public String getFileContent() {
+    SourceText sourceText = tree.sourceText;
+    if (sourceText != null) {
+      return sourceText.text();
+    }
     return sonarComponents.inputFileContents(inputFile);
   }
 
@@ -28,26 +28,24 @@ import java.util.List;
 
 public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
-  private final List<SyntaxTrivia> trivias;
-  private final int line;
-  private final int column;
-  private final String value;
-  private final boolean isEOF;
+  private final TokenArena arena;
+  private final int index;
 
   protected InternalSyntaxToken(InternalSyntaxToken internalSyntaxToken) {
-    this.value = internalSyntaxToken.value;
-    this.line = internalSyntaxToken.line;
-    this.column = internalSyntaxToken.column;
-    this.trivias = internalSyntaxToken.trivias;
-    this.isEOF = internalSyntaxToken.isEOF;
+    this.arena = internalSyntaxToken.arena;
+    this.index = internalSyntaxToken.index;
   }
 
   public InternalSyntaxToken(int line, int column, String value, List<SyntaxTrivia> trivias, boolean isEOF) {
-    this.value = value;
-    this.line = line;
-    this.column = column;
-    this.trivias = trivias;
-    this.isEOF = isEOF;
+    this(TokenArena.detached(line, column, value, trivias, isEOF), 0);
+  }
+
+  /**
+   * @param index index of the token in the tokens and comments of the arena
+   */
+  InternalSyntaxToken(TokenArena arena, int index) {
+    this.arena = arena;
+    this.index = index;
   }
 
   @Override
@@ -62,12 +60,12 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   @Override
   public String text() {
-    return value;
+    return arena.text(index);
   }
 
   @Override
   public List<SyntaxTrivia> trivias() {
-    return trivias;
+    return arena.trivias(index);
   }
 
   @Override
@@ -77,17 +75,17 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   @Override
   public int getLine() {
-    return line;
+    return arena.line(index);
   }
 
   @Override
   public int line() {
-    return line;
+    return arena.line(index);
   }
 
   @Override
   public int column() {
-    return column;
+    return arena.column(index);
   }
 
   @Override
@@ -101,7 +99,7 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
   }
 
   public boolean isEOF() {
-    return isEOF;
+    return arena.isEOF(index);
   }
 
   @Override
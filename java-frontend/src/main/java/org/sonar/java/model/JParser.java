@@ -28,12 +28,15 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -161,22 +164,13 @@ public class JParser {
     List<File> classpath
   ) {
     ASTParser astParser = ASTParser.newParser(AST.JLS15);
-    Map<String, String> options = new HashMap<>();
-    options.put(JavaCore.COMPILER_COMPLIANCE, version);
-    options.put(JavaCore.COMPILER_SOURCE, version);
-    if (MAXIMUM_SUPPORTED_JAVA_VERSION.equals(version)) {
-      options.put(JavaCore.COMPILER_PB_ENABLE_PREVIEW_FEATURES, "enabled");
-    }
-
-    astParser.setCompilerOptions(options);
-
-    boolean includeRunningVMBootclasspath = classpath.stream().noneMatch(f -> JRE_JARS.contains(f.getName()));
+    astParser.setCompilerOptions(compilerOptions(version));
 
     astParser.setEnvironment(
       classpath.stream().map(File::getAbsolutePath).toArray(String[]::new),
       new String[]{},
       new String[]{},
-      includeRunningVMBootclasspath
+      includeRunningVMBootclasspath(classpath)
     );
     astParser.setUnitName(unitName);
 
@@ -193,7 +187,81 @@ public class JParser {
       LOG.error("ECJ: Unable to parse file", e);
       throw new RecognitionException(-1, "ECJ: Unable to parse file.", e);
     }
+    return convert(version, unitName, source, sourceChars, astNode);
+  }
 
+  /**
+   * Same as {@link #parse(String, String, String, List)}, but resolving semantic against an environment shared between
+   * the compilation units. Releasing the environment of the returned tree has no effect, the shared environment
+   * has to be released by calling {@link ClasspathNameEnvironment#release()} once all the compilation units have been analyzed.
+   *
+   * @param unitName see {@link ASTParser#setUnitName(String)}
+   * @throws RecognitionException in case of syntax errors
+   */
+  public static CompilationUnitTree parse(
+    String version,
+    String unitName,
+    String source,
+    ClasspathNameEnvironment environment
+  ) {
+    char[] sourceChars = source.toCharArray();
+    CompilationUnit astNode;
+    try {
+      astNode = environment.createAST(compilerOptions(version), unitName, sourceChars);
+    } catch (Exception e) {
+      LOG.error("ECJ: Unable to parse file", e);
+      throw new RecognitionException(-1, "ECJ: Unable to parse file.", e);
+    }
+    return convert(version, unitName, source, sourceChars, astNode);
+  }
+
+  /**
+   * Resolves semantic of all the given compilation units together, by one compiler pass against the shared environment:
+   * types declared by the units are visible to each other without being looked up on the classpath.
+   * <p>
+   * Each unit is handed to the requestor, in the order of the given sources, with a supplier of its tree which
+   * throws {@link RecognitionException} in case of syntax errors. The requestor has to get the tree before returning.
+   * Units which can not be resolved as part of the batch are parsed one by one.
+   *
+   * @param sources contents of the compilation units, by unit name (see {@link ASTParser#setUnitName(String)})
+   */
+  public static void parseAsBatch(
+    String version,
+    Map<String, String> sources,
+    ClasspathNameEnvironment environment,
+    BiConsumer<String, Supplier<CompilationUnitTree>> requestor
+  ) {
+    Map<String, char[]> sourcesChars = new LinkedHashMap<>();
+    sources.forEach((unitName, source) -> sourcesChars.put(unitName, source.toCharArray()));
+    List<String> notResolved = environment.createASTs(compilerOptions(version), sourcesChars,
+      (unitName, astNode) -> requestor.accept(unitName, () -> convert(version, unitName, sources.get(unitName), sourcesChars.get(unitName), astNode)));
+    for (String unitName : notResolved) {
+      requestor.accept(unitName, () -> parse(version, unitName, sources.get(unitName), environment));
+    }
+  }
+
+  /**
+   * @return a name environment for the given classpath, to be shared by calls to {@link #parse(String, String, String, ClasspathNameEnvironment)}
+   */
+  public static ClasspathNameEnvironment createEnvironment(List<File> classpath) {
+    return ClasspathNameEnvironment.create(classpath, includeRunningVMBootclasspath(classpath));
+  }
+
+  private static boolean includeRunningVMBootclasspath(List<File> classpath) {
+    return classpath.stream().noneMatch(f -> JRE_JARS.contains(f.getName()));
+  }
+
+  private static Map<String, String> compilerOptions(String version) {
+    Map<String, String> options = new HashMap<>();
+    options.put(JavaCore.COMPILER_COMPLIANCE, version);
+    options.put(JavaCore.COMPILER_SOURCE, version);
+    if (MAXIMUM_SUPPORTED_JAVA_VERSION.equals(version)) {
+      options.put(JavaCore.COMPILER_PB_ENABLE_PREVIEW_FEATURES, "enabled");
+    }
+    return options;
+  }
+
+  private static CompilationUnitTree convert(String version, String unitName, String source, char[] sourceChars, CompilationUnit astNode) {
     List<IProblem> errors = Stream.of(astNode.getProblems()).filter(IProblem::isError).collect(Collectors.toList());
     Optional<IProblem> possibleSyntaxError = errors.stream().filter(IS_SYNTAX_ERROR).findFirst();
     if (possibleSyntaxError.isPresent()) {
@@ -214,23 +282,43 @@ public class JParser {
     converter.sema = new JSema(astNode.getAST());
     converter.sema.undefinedTypes.addAll(undefinedTypes);
     converter.compilationUnit = astNode;
-    converter.tokenManager = new TokenManager(lex(version, unitName, sourceChars), source, new DefaultCodeFormatterOptions(new HashMap<>()));
+    List<Token> tokens = lex(version, unitName, sourceChars);
+    converter.tokenManager = new TokenManager(tokens, source, new DefaultCodeFormatterOptions(new HashMap<>()));
+    converter.tokenArena = converter.createTokenArena(tokens, source);
 
     JavaTree.CompilationUnitTreeImpl tree = converter.convertCompilationUnit(astNode);
     tree.sema = converter.sema;
+    tree.sourceText = new SourceText(source);
 
     ASTUtils.mayTolerateMissingType(astNode.getAST());
 
-    setParents(tree);
+    setParents(tree, SubtreeKinds.none());
     return tree;
   }
 
-  private static void setParents(Tree node) {
+  /**
+   * @param subtreeKinds kinds of the trees below the closest summarized ancestor, completed with the ones found below this node
+   */
+  private static void setParents(Tree node, long[] subtreeKinds) {
+    long[] kinds = subtreeKinds;
+    boolean isSummarized = node instanceof BlockTreeImpl || node instanceof ClassTreeImpl;
+    if (isSummarized) {
+      kinds = SubtreeKinds.none();
+    }
     Iterator<Tree> childrenIterator = iteratorFor(node);
     while (childrenIterator.hasNext()) {
       Tree child = childrenIterator.next();
       ((JavaTree) child).setParent(node);
-      setParents(child);
+      SubtreeKinds.add(kinds, child.kind());
+      setParents(child, kinds);
+    }
+    if (node instanceof BlockTreeImpl) {
+      ((BlockTreeImpl) node).setSubtreeKinds(kinds);
+    } else if (node instanceof ClassTreeImpl) {
+      ((ClassTreeImpl) node).setSubtreeKinds(kinds);
+    }
+    if (isSummarized) {
+      SubtreeKinds.addAll(subtreeKinds, kinds);
     }
   }
 
@@ -274,6 +362,60 @@ public class JParser {
 
   private TokenManager tokenManager;
 
+  /**
+   * Tokens of {@link #tokenManager}, viewed by the {@link InternalSyntaxToken} of the tree
+   */
+  private TokenArena tokenArena;
+
+  /**
+   * Positions of the tokens are computed in one sweep over the tokens and the lines of the compilation unit, instead of looking up
+   * the line and then the column of each token.
+   */
+  private TokenArena createTokenArena(List<Token> tokens, String source) {
+    int size = tokens.size();
+    TokenArena arena = TokenArena.create(source, size);
+    int line = 1;
+    int lineStart = 0;
+    // negative when there is no next line
+    int nextLineStart = compilationUnit.getPosition(2, 0);
+    for (int i = 0; i < size; i++) {
+      Token t = tokens.get(i);
+      int start = t.originalStart;
+      if (t.tokenType == TerminalTokens.TokenNameEOF) {
+        setEndOfFile(arena, i, start, source);
+        continue;
+      }
+      while (nextLineStart >= 0 && nextLineStart <= start) {
+        line++;
+        lineStart = nextLineStart;
+        nextLineStart = compilationUnit.getPosition(line + 1, 0);
+      }
+      arena.set(i, start, t.originalEnd + 1, line, start - lineStart, t.isComment() ? TokenArena.COMMENT : TokenArena.TOKEN);
+    }
+    return arena;
+  }
+
+  /**
+   * End of file is positioned right after the last character of the file.
+   */
+  private void setEndOfFile(TokenArena arena, int index, int start, String source) {
+    if (start == 0) {
+      arena.set(index, 0, 0, 1, 0, TokenArena.EOF);
+      return;
+    }
+    final int position = start - 1;
+    final char c = source.charAt(position);
+    int line = compilationUnit.getLineNumber(position);
+    int column = compilationUnit.getColumnNumber(position);
+    if (c == '\n' || c == '\r') {
+      line++;
+      column = 0;
+    } else {
+      column++;
+    }
+    arena.set(index, start, start, line, column, TokenArena.EOF);
+  }
+
   private JSema sema;
 
   private final Deque<JLabelSymbol> labels = new LinkedList<>();
@@ -355,30 +497,7 @@ public class JParser {
   }
 
   private InternalSyntaxToken createSyntaxToken(int tokenIndex) {
-    Token t = tokenManager.get(tokenIndex);
-    if (t.tokenType == TerminalTokens.TokenNameEOF) {
-      if (t.originalStart == 0) {
-        return new InternalSyntaxToken(1, 0, "", collectComments(tokenIndex), true);
-      }
-      final int position = t.originalStart - 1;
-      final char c = tokenManager.getSource().charAt(position);
-      int line = compilationUnit.getLineNumber(position);
-      int column = compilationUnit.getColumnNumber(position);
-      if (c == '\n' || c == '\r') {
-        line++;
-        column = 0;
-      } else {
-        column++;
-      }
-      return new InternalSyntaxToken(line, column, "", collectComments(tokenIndex), true);
-    }
-    return new InternalSyntaxToken(
-      compilationUnit.getLineNumber(t.originalStart),
-      compilationUnit.getColumnNumber(t.originalStart),
-      t.toString(tokenManager.getSource()),
-      collectComments(tokenIndex),
-      false
-    );
+    return new InternalSyntaxToken(tokenArena, tokenIndex);
   }
 
   private InternalSyntaxToken createSpecialToken(int tokenIndex) {
@@ -396,20 +515,7 @@ public class JParser {
   }
 
   private List<SyntaxTrivia> collectComments(int tokenIndex) {
-    int commentIndex = tokenIndex;
-    while (commentIndex > 0 && tokenManager.get(commentIndex - 1).isComment()) {
-      commentIndex--;
-    }
-    List<SyntaxTrivia> comments = new ArrayList<>();
-    for (int i = commentIndex; i < tokenIndex; i++) {
-      Token t = tokenManager.get(i);
-      comments.add(new InternalSyntaxTrivia(
-        t.toString(tokenManager.getSource()),
-        compilationUnit.getLineNumber(t.originalStart),
-        compilationUnit.getColumnNumber(t.originalStart)
-      ));
-    }
-    return comments;
+    return tokenArena.trivias(tokenIndex);
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
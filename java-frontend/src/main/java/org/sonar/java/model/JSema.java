@@ -49,6 +49,11 @@ public final class JSema implements Sema {
   private final Map<IBinding, JSymbol> symbols = new HashMap<>();
   private final Map<IAnnotationBinding, JSymbolMetadata.JAnnotationInstance> annotations = new HashMap<>();
   private final Map<String, Type> nameToTypeCache = new HashMap<>();
+  /**
+   * Cache for {@link JType#isSubtypeOf(Type)}, by sub type then super type: checks and method matchers ask the same few super
+   * types again and again, super types named by {@link JType#isSubtypeOf(String)} being resolved once by {@link #getClassType(String)}.
+   */
+  private final Map<ITypeBinding, Map<ITypeBinding, Boolean>> subtypes = new HashMap<>();
 
   JSema(AST ast) {
     this.ast = ast;
@@ -102,6 +107,16 @@ public final class JSema implements Sema {
     }
   }
 
+  boolean isSubtype(ITypeBinding typeBinding, ITypeBinding superTypeBinding) {
+    Map<ITypeBinding, Boolean> superTypes = subtypes.computeIfAbsent(typeBinding, k -> new HashMap<>());
+    Boolean result = superTypes.get(superTypeBinding);
+    if (result == null) {
+      result = JType.isSubtype(typeBinding, superTypeBinding);
+      superTypes.put(superTypeBinding, result);
+    }
+    return result;
+  }
+
   @Override
   public Type getClassType(String fullyQualifiedName) {
     return nameToTypeCache.computeIfAbsent(fullyQualifiedName, t -> {
@@ -145,6 +145,16 @@ public abstract class JavaTree implements Tree {
     return false;
   }
 
+  /**
+   * Kinds of all the trees below this one, computed when parsing only for the trees holding large subtrees: classes and blocks.
+   *
+   * @return bitmask of {@link SubtreeKinds}, null when not computed for this tree
+   */
+  @Nullable
+  public long[] subtreeKinds() {
+    return null;
+  }
+
   public static class CompilationUnitTreeImpl extends JavaTree implements CompilationUnitTree {
     @Nullable
     private final PackageDeclarationTree packageDeclaration;
@@ -154,6 +164,11 @@ public abstract class JavaTree implements Tree {
     private final ModuleDeclarationTree moduleDeclaration;
     private final SyntaxToken eofToken;
     public JSema sema;
+    /**
+     * Source code from which this tree has been parsed, null when the tree was not parsed
+     */
+    @Nullable
+    public SourceText sourceText;
 
     public CompilationUnitTreeImpl(@Nullable PackageDeclarationTree packageDeclaration, List<ImportClauseTree> imports, List<Tree> types,
       @Nullable ModuleDeclarationTree moduleDeclaration, SyntaxToken eofToken) {
@@ -0,0 +1,105 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Source code of a file, read once and shared by the parser and the visitors of the file, with an index of the lines of the file.
+ * <p>
+ * Lines are split as {@link java.util.Scanner#nextLine()} does: on {@code \r\n}, {@code \n}, {@code \r}, {@code \u2028},
+ * {@code \u2029} and {@code \u0085}, a line separator ending the text not being followed by an empty line.
+ */
+public final class SourceText {
+
+  private final String text;
+  /**
+   * Lines of the text, computed on first use
+   */
+  @Nullable
+  private List<String> lines;
+
+  public SourceText(String text) {
+    this.text = text;
+  }
+
+  public String text() {
+    return text;
+  }
+
+  public int length() {
+    return text.length();
+  }
+
+  /**
+   * @return all the lines of the text, without line separators
+   */
+  public List<String> lines() {
+    if (lines == null) {
+      int[] offsets = computeLineOffsets(text);
+      List<String> result = new ArrayList<>(offsets.length / 2);
+      for (int i = 0; i < offsets.length; i += 2) {
+        result.add(text.substring(offsets[i], offsets[i + 1]));
+      }
+      lines = Collections.unmodifiableList(result);
+    }
+    return lines;
+  }
+
+  /**
+   * @return start and end offsets of each line, line separator excluded
+   */
+  private static int[] computeLineOffsets(String text) {
+    int[] offsets = new int[32];
+    int size = 0;
+    int lineStart = 0;
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if (isLineSeparator(c)) {
+        if (size + 2 > offsets.length) {
+          offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[size++] = lineStart;
+        offsets[size++] = i;
+        i += (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') ? 2 : 1;
+        lineStart = i;
+      } else {
+        i++;
+      }
+    }
+    if (lineStart < length) {
+      offsets = Arrays.copyOf(offsets, size + 2);
+      offsets[size++] = lineStart;
+      offsets[size++] = length;
+    }
+    return size == offsets.length ? offsets : Arrays.copyOf(offsets, size);
+  }
+
+  private static boolean isLineSeparator(char c) {
+    return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029' || c == '\u0085';
+  }
+
+}
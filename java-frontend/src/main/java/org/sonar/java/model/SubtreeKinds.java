@@ -0,0 +1,81 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.model;
+
+import java.util.Collection;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Sets of tree kinds as bitmasks over the ordinals of {@link Tree.Kind}, compact enough to summarize on a tree the kinds of all the trees
+ * below it, see {@link JavaTree#subtreeKinds()}: walks of the tree then skip the subtrees without any of the kinds they are looking for.
+ */
+public final class SubtreeKinds {
+
+  private static final int SIZE = (Tree.Kind.values().length + Long.SIZE - 1) / Long.SIZE;
+
+  private SubtreeKinds() {
+  }
+
+  public static long[] none() {
+    return new long[SIZE];
+  }
+
+  public static long[] all() {
+    long[] kinds = none();
+    for (Tree.Kind kind : Tree.Kind.values()) {
+      add(kinds, kind);
+    }
+    return kinds;
+  }
+
+  public static long[] of(Collection<Tree.Kind> kinds) {
+    long[] result = none();
+    kinds.forEach(kind -> add(result, kind));
+    return result;
+  }
+
+  public static void add(long[] kinds, Tree.Kind kind) {
+    kinds[kind.ordinal() / Long.SIZE] |= 1L << kind.ordinal();
+  }
+
+  public static void addAll(long[] kinds, long[] added) {
+    for (int i = 0; i < SIZE; i++) {
+      kinds[i] |= added[i];
+    }
+  }
+
+  public static void remove(long[] kinds, Tree.Kind kind) {
+    kinds[kind.ordinal() / Long.SIZE] &= ~(1L << kind.ordinal());
+  }
+
+  public static boolean contains(long[] kinds, Tree.Kind kind) {
+    return (kinds[kind.ordinal() / Long.SIZE] & (1L << kind.ordinal())) != 0;
+  }
+
+  public static boolean intersects(long[] kinds, long[] otherKinds) {
+    for (int i = 0; i < SIZE; i++) {
+      if ((kinds[i] & otherKinds[i]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
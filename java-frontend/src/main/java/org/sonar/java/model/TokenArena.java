@@ -0,0 +1,152 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+
+/**
+ * Tokens and comments of a file, in the order of the file, stored in parallel arrays instead of one object per token.
+ * <p>
+ * {@link InternalSyntaxToken} are views on the entries of an arena, the texts of which are sliced from the source only when requested,
+ * and the {@link SyntaxTrivia} of a token are created on first request from the comments preceding it in the arena.
+ */
+public final class TokenArena {
+
+  static final byte TOKEN = 0;
+  static final byte COMMENT = 1;
+  static final byte EOF = 2;
+
+  private final String source;
+  private final int[] starts;
+  private final int[] ends;
+  private final int[] lines;
+  private final int[] columns;
+  private final byte[] kinds;
+  /**
+   * Texts of the entries, sliced from the source on first request
+   */
+  private final String[] texts;
+  /**
+   * Comments of the tokens, created on first request so that a token always gives the same {@link SyntaxTrivia}
+   */
+  private final List<SyntaxTrivia>[] trivias;
+
+  @SuppressWarnings("unchecked")
+  private TokenArena(String source, int size) {
+    this.source = source;
+    this.starts = new int[size];
+    this.ends = new int[size];
+    this.lines = new int[size];
+    this.columns = new int[size];
+    this.kinds = new byte[size];
+    this.texts = new String[size];
+    this.trivias = new List[size];
+  }
+
+  /**
+   * @param source source of the file, from which the texts of the entries are sliced
+   * @param size number of tokens and comments of the file, to be set with {@link #set(int, int, int, int, int, byte)}
+   */
+  static TokenArena create(String source, int size) {
+    return new TokenArena(source, size);
+  }
+
+  /**
+   * Arena of a single token created outside of the parsing of a file, along with its comments.
+   */
+  static TokenArena detached(int line, int column, String value, List<SyntaxTrivia> trivias, boolean isEOF) {
+    TokenArena arena = new TokenArena(value, 1);
+    arena.set(0, 0, value.length(), line, column, isEOF ? EOF : TOKEN);
+    arena.texts[0] = value;
+    arena.trivias[0] = trivias;
+    return arena;
+  }
+
+  /**
+   * @param end offset in the source of the end of the entry, exclusive
+   */
+  void set(int index, int start, int end, int line, int column, byte kind) {
+    starts[index] = start;
+    ends[index] = end;
+    lines[index] = line;
+    columns[index] = column;
+    kinds[index] = kind;
+  }
+
+  public int size() {
+    return kinds.length;
+  }
+
+  public String text(int index) {
+    String text = texts[index];
+    if (text == null) {
+      text = source.substring(starts[index], ends[index]);
+      texts[index] = text;
+    }
+    return text;
+  }
+
+  public int line(int index) {
+    return lines[index];
+  }
+
+  public int column(int index) {
+    return columns[index];
+  }
+
+  public boolean isComment(int index) {
+    return kinds[index] == COMMENT;
+  }
+
+  public boolean isEOF(int index) {
+    return kinds[index] == EOF;
+  }
+
+  /**
+   * @return the comments directly preceding the given token
+   */
+  public List<SyntaxTrivia> trivias(int index) {
+    List<SyntaxTrivia> result = trivias[index];
+    if (result == null) {
+      result = collectTrivias(index);
+      trivias[index] = result;
+    }
+    return result;
+  }
+
+  private List<SyntaxTrivia> collectTrivias(int index) {
+    int commentIndex = index;
+    while (commentIndex > 0 && isComment(commentIndex - 1)) {
+      commentIndex--;
+    }
+    if (commentIndex == index) {
+      return Collections.emptyList();
+    }
+    List<SyntaxTrivia> comments = new ArrayList<>(index - commentIndex);
+    for (int i = commentIndex; i < index; i++) {
+      comments.add(new InternalSyntaxTrivia(text(i), line(i), column(i)));
+    }
+    return comments;
+  }
+
+}
@@ -22,11 +22,19 @@ package org.sonar.java.model;
 import com.sonar.sslr.api.RecognitionException;
 import java.io.File;
 import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -45,18 +53,25 @@ import org.sonar.java.JavaVersionAwareVisitor;
 import org.sonar.java.PerformanceMeasure;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.ast.parser.ListTreeImpl;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.ast.visitors.SonarSymbolTableVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
 import org.sonar.java.exceptions.ThrowableUtils;
+import org.sonar.java.matcher.MethodMatchersIndex;
+import org.sonar.java.matcher.MethodMatchersSubscriber;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ListTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
+import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 public class VisitorsBridge {
 
@@ -68,9 +83,13 @@ public class VisitorsBridge {
   protected InputFile currentFile;
   protected JavaVersion javaVersion;
   private final List<File> classpath;
-  private IssuableSubsciptionVisitorsRunner issuableSubscriptionVisitorsRunner;
+  private SubscriptionVisitorsRunner subscriptionVisitorsRunner;
+  private FusedTreeVisitorsRunner fusedTreeVisitorsRunner;
 
-  private static final Predicate<JavaFileScanner> IS_ISSUABLE_SUBSCRIPTION_VISITOR = IssuableSubscriptionVisitor.class::isInstance;
+  private static final Predicate<JavaFileScanner> IS_DRIVEN_BY_BRIDGE = VisitorsBridge::isDrivenByBridge;
+  private static final Predicate<JavaFileScanner> IS_FUSED_BY_BRIDGE = VisitorsBridge::isFusedByBridge;
+  private static final Predicate<JavaFileScanner> IS_RUN_ON_ITS_OWN = IS_DRIVEN_BY_BRIDGE.or(IS_FUSED_BY_BRIDGE).negate();
+  private static final Set<Tree.Kind> INVOCATION_KINDS = EnumSet.of(Tree.Kind.METHOD_INVOCATION, Tree.Kind.NEW_CLASS, Tree.Kind.METHOD_REFERENCE);
 
   @VisibleForTesting
   public VisitorsBridge(JavaFileScanner visitor) {
@@ -85,11 +104,56 @@ public class VisitorsBridge {
       }
     }
     this.classpath = projectClasspath;
-    this.executableScanners = allScanners.stream().filter(IS_ISSUABLE_SUBSCRIPTION_VISITOR.negate()).collect(Collectors.toList());
-    this.issuableSubscriptionVisitorsRunner = new IssuableSubsciptionVisitorsRunner(allScanners);
+    this.executableScanners = allScanners.stream().filter(IS_RUN_ON_ITS_OWN).collect(Collectors.toList());
+    this.subscriptionVisitorsRunner = new SubscriptionVisitorsRunner(allScanners);
+    this.fusedTreeVisitorsRunner = new FusedTreeVisitorsRunner(allScanners);
     this.sonarComponents = sonarComponents;
   }
 
+  /**
+   * Subscription visitors which do not drive the visit of the tree themselves are all served by one shared walk of the tree.
+   */
+  private static boolean isDrivenByBridge(JavaFileScanner scanner) {
+    if (scanner instanceof IssuableSubscriptionVisitor) {
+      return true;
+    }
+    if (!(scanner instanceof SubscriptionVisitor)) {
+      return false;
+    }
+    try {
+      return scanner.getClass().getMethod("scanFile", JavaFileScannerContext.class).getDeclaringClass() == SubscriptionVisitor.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Tree visitors which can share their walk of the tree are all served by one shared walk, unless they drive the visit themselves.
+   */
+  private static boolean isFusedByBridge(JavaFileScanner scanner) {
+    if (!(scanner instanceof FusableTreeVisitor)) {
+      return false;
+    }
+    Class<?> scannerClass = scanner.getClass();
+    return declaringClass(scannerClass, "scanFile", JavaFileScannerContext.class) == FusableTreeVisitor.class
+      && declaringClass(scannerClass, "scan", Tree.class) == BaseTreeVisitor.class
+      && declaringClass(scannerClass, "scan", List.class) == BaseTreeVisitor.class
+      && declaringClass(scannerClass, "scan", ListTree.class) == BaseTreeVisitor.class;
+  }
+
+  @Nullable
+  private static Class<?> declaringClass(Class<?> scannerClass, String methodName, Class<?>... parameterTypes) {
+    for (Class<?> current = scannerClass; current != null; current = current.getSuperclass()) {
+      try {
+        current.getDeclaredMethod(methodName, parameterTypes);
+        return current;
+      } catch (NoSuchMethodException e) {
+        // declared by a super class
+      }
+    }
+    return null;
+  }
+
   public JavaVersion getJavaVersion() {
     return javaVersion;
   }
@@ -101,8 +165,9 @@ public class VisitorsBridge {
   public void setJavaVersion(JavaVersion javaVersion) {
     this.javaVersion = javaVersion;
     List<JavaFileScanner> scannersForJavaVersion = executableScanners(allScanners, javaVersion);
-    this.executableScanners = scannersForJavaVersion.stream().filter(IS_ISSUABLE_SUBSCRIPTION_VISITOR.negate()).collect(Collectors.toList());
-    this.issuableSubscriptionVisitorsRunner = new IssuableSubsciptionVisitorsRunner(scannersForJavaVersion);
+    this.executableScanners = scannersForJavaVersion.stream().filter(IS_RUN_ON_ITS_OWN).collect(Collectors.toList());
+    this.subscriptionVisitorsRunner = new SubscriptionVisitorsRunner(scannersForJavaVersion);
+    this.fusedTreeVisitorsRunner = new FusedTreeVisitorsRunner(scannersForJavaVersion);
   }
 
   public void visitFile(@Nullable Tree parsedTree) {
@@ -121,6 +186,7 @@ public class VisitorsBridge {
     JavaFileScannerContext javaFileScannerContext = createScannerContext(tree, tree.sema, sonarComponents, fileParsed);
 
     PerformanceMeasure.Duration scannersDuration = PerformanceMeasure.start("Scanners");
+    fusedTreeVisitorsRunner.run(javaFileScannerContext);
     for (JavaFileScanner scanner : executableScanners) {
       PerformanceMeasure.Duration scannerDuration = PerformanceMeasure.start(scanner);
       try {
@@ -133,14 +199,9 @@ public class VisitorsBridge {
     }
     scannersDuration.stop();
 
-    PerformanceMeasure.Duration issuableSubscriptionVisitorsDuration = PerformanceMeasure.start("IssuableSubscriptionVisitors");
-    try {
-      issuableSubscriptionVisitorsRunner.run(javaFileScannerContext);
-    } catch (CheckFailureException e) {
-      interruptIfFailFast(e);
-    } finally {
-      issuableSubscriptionVisitorsDuration.stop();
-    }
+    PerformanceMeasure.Duration subscriptionVisitorsDuration = PerformanceMeasure.start("SubscriptionVisitors");
+    subscriptionVisitorsRunner.run(javaFileScannerContext);
+    subscriptionVisitorsDuration.stop();
   }
 
   private void interruptIfFailFast(CheckFailureException e) {
@@ -156,23 +217,28 @@ public class VisitorsBridge {
   private void runScanner(Runnable action, JavaFileScanner scanner) throws CheckFailureException {
     try {
       action.run();
-    } catch (IllegalRuleParameterException e) {
+    } catch (RuntimeException e) {
+      throw checkFailure(e, scanner);
+    }
+  }
+
+  private CheckFailureException checkFailure(RuntimeException e, JavaFileScanner scanner) {
+    if (e instanceof IllegalRuleParameterException) {
       // bad configuration of a rule parameter, we want to fail analysis fast.
       throw new AnalysisException("Bad configuration of rule parameter", e);
-    } catch (Exception e) {
-      Throwable rootCause = ThrowableUtils.getRootCause(e);
-      if (rootCause instanceof InterruptedIOException || rootCause instanceof InterruptedException) {
-        throw e;
-      }
+    }
+    Throwable rootCause = ThrowableUtils.getRootCause(e);
+    if (rootCause instanceof InterruptedIOException || rootCause instanceof InterruptedException) {
+      throw e;
+    }
 
-      String message = String.format(
-        "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource.com/",
-        scanner.getClass(), ruleKey(scanner), currentFile);
+    String message = String.format(
+      "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource.com/",
+      scanner.getClass(), ruleKey(scanner), currentFile);
 
-      LOG.error(message, e);
+    LOG.error(message, e);
 
-      throw new CheckFailureException(message, e);
-    }
+    return new CheckFailureException(message, e);
   }
 
   private static String ruleKey(JavaFileScanner scanner) {
@@ -235,30 +301,66 @@ public class VisitorsBridge {
       .forEach(EndOfAnalysisCheck::endOfAnalysis);
   }
 
-  private class IssuableSubsciptionVisitorsRunner {
+  private class SubscriptionVisitorsRunner {
     private EnumMap<Tree.Kind, List<SubscriptionVisitor>> checks;
     private List<SubscriptionVisitor> subscriptionVisitors;
-
-    IssuableSubsciptionVisitorsRunner(List<JavaFileScanner> executableScanners) {
+    /**
+     * Visitors which failed on the current file. Like a scanner whose scanFile throws, they are not called anymore until the
+     * next file, while the walk goes on for the other visitors.
+     */
+    private final Set<SubscriptionVisitor> failedVisitors = new HashSet<>();
+    /**
+     * Visitors called back on method invocations, constructor calls and method references only when one of their matchers matches
+     */
+    private final Set<SubscriptionVisitor> indexedVisitors = new HashSet<>();
+    @Nullable
+    private MethodMatchersIndex<SubscriptionVisitor> methodMatchersIndex;
+    /**
+     * Kinds of the trees to walk down to, subtrees summarizing none of them are skipped
+     */
+    private final long[] subscribedKinds;
+
+    SubscriptionVisitorsRunner(List<JavaFileScanner> executableScanners) {
       checks = new EnumMap<>(Tree.Kind.class);
       subscriptionVisitors = executableScanners.stream()
-        .filter(IS_ISSUABLE_SUBSCRIPTION_VISITOR)
+        .filter(IS_DRIVEN_BY_BRIDGE)
         .map(SubscriptionVisitor.class::cast)
         .collect(Collectors.toList());
 
       subscriptionVisitors
         .forEach(s -> s.nodesToVisit()
           .forEach(k -> checks.computeIfAbsent(k, key -> new ArrayList<>()).add(s)));
+
+      subscribedKinds = SubtreeKinds.of(checks.keySet());
+      if (checks.containsKey(Tree.Kind.TRIVIA)) {
+        // trivia are attached to tokens
+        SubtreeKinds.add(subscribedKinds, Tree.Kind.TOKEN);
+      }
     }
 
-    public void run(JavaFileScannerContext javaFileScannerContext) throws CheckFailureException {
+    public void run(JavaFileScannerContext javaFileScannerContext) {
+      failedVisitors.clear();
       forEach(subscriptionVisitors, s -> s.setContext(javaFileScannerContext));
+      if (methodMatchersIndex == null) {
+        // matchers are only requested once visitors have a context, like when they match themselves
+        methodMatchersIndex = new MethodMatchersIndex<>();
+        forEach(subscriptionVisitors, s -> {
+          if (s instanceof MethodMatchersSubscriber) {
+            methodMatchersIndex.add(((MethodMatchersSubscriber) s).subscribedMatchers(), s);
+            indexedVisitors.add(s);
+          }
+        });
+      }
       visit(javaFileScannerContext.getTree());
       forEach(subscriptionVisitors, s -> s.leaveFile(javaFileScannerContext));
     }
 
-    private void visitChildren(Tree tree) throws CheckFailureException {
+    private void visitChildren(Tree tree) {
       JavaTree javaTree = (JavaTree) tree;
+      long[] subtreeKinds = javaTree.subtreeKinds();
+      if (subtreeKinds != null && !SubtreeKinds.intersects(subtreeKinds, subscribedKinds)) {
+        return;
+      }
       if (!javaTree.isLeaf()) {
         for (Tree next : javaTree.getChildren()) {
           if (next != null) {
@@ -268,9 +370,12 @@ public class VisitorsBridge {
       }
     }
 
-    private void visit(Tree tree) throws CheckFailureException {
+    private void visit(Tree tree) {
       Kind kind = tree.kind();
       List<SubscriptionVisitor> subscribed = checks.getOrDefault(kind, Collections.emptyList());
+      if (!indexedVisitors.isEmpty() && INVOCATION_KINDS.contains(kind) && !subscribed.isEmpty()) {
+        subscribed = matchingVisitors(subscribed, tree);
+      }
       Consumer<SubscriptionVisitor> callback;
       boolean isToken = (kind == Tree.Kind.TOKEN);
       if (isToken) {
@@ -289,12 +394,245 @@ public class VisitorsBridge {
       }
     }
 
-    private final void forEach(Collection<SubscriptionVisitor> visitors, Consumer<SubscriptionVisitor> callback) throws CheckFailureException {
+    private List<SubscriptionVisitor> matchingVisitors(List<SubscriptionVisitor> subscribed, Tree tree) {
+      Set<SubscriptionVisitor> matching = methodMatchersIndex.matching(tree);
+      List<SubscriptionVisitor> result = new ArrayList<>(subscribed.size());
+      for (SubscriptionVisitor visitor : subscribed) {
+        if (!indexedVisitors.contains(visitor) || matching.contains(visitor)) {
+          result.add(visitor);
+        }
+      }
+      return result;
+    }
+
+    private final void forEach(Collection<SubscriptionVisitor> visitors, Consumer<SubscriptionVisitor> callback) {
       for (SubscriptionVisitor visitor : visitors) {
+        if (!failedVisitors.isEmpty() && failedVisitors.contains(visitor)) {
+          continue;
+        }
         PerformanceMeasure.Duration visitorDuration = PerformanceMeasure.start(visitor);
-        runScanner(() -> callback.accept(visitor), visitor);
+        try {
+          runScanner(() -> callback.accept(visitor), visitor);
+        } catch (CheckFailureException e) {
+          interruptIfFailFast(e);
+          failedVisitors.add(visitor);
+        } finally {
+          visitorDuration.stop();
+        }
+      }
+    }
+  }
+
+  /**
+   * Single walk of the tree for all the fusable tree visitors. Each visitor sees the nodes in the same order as when running on its own:
+   * the walk follows the default visit of {@link BaseTreeVisitor} and, on a node for which a visitor overrides the visit method, hands
+   * the whole subtree over to this visitor. The visitor then decides on its own whether and how to descend into the subtree, and the
+   * shared walk goes on in the subtree only for the other visitors, down to the subtrees that no visitor is still waiting for.
+   */
+  private class FusedTreeVisitorsRunner extends BaseTreeVisitor {
+    private final List<FusableTreeVisitor> fusedVisitors;
+    /**
+     * Visitors overriding each visit method
+     */
+    private final Map<Method, Set<FusableTreeVisitor>> visitorsByVisitMethod = new HashMap<>();
+    /**
+     * Visit method called by the accept method of each class of tree, none for syntax tokens and plain lists
+     */
+    private final Map<Class<?>, Optional<Method>> visitMethodByTreeClass = new HashMap<>();
+    /**
+     * Visit method called by the accept method of the trees of each kind, as found so far
+     */
+    private final EnumMap<Tree.Kind, Optional<Method>> visitMethodByKind = new EnumMap<>(Tree.Kind.class);
+    /**
+     * Kinds of the trees for which each visitor overrides the visit method, among the kinds of {@link #visitMethodByKind}
+     */
+    private final Map<FusableTreeVisitor, long[]> kindsByVisitor = new HashMap<>();
+    /**
+     * Kinds of the trees which may be visited by any visitor: kinds not met yet, or met with different visit methods
+     */
+    private final long[] unknownKinds = SubtreeKinds.all();
+    /**
+     * Visitors which failed on the current file, they are not called anymore until the next file
+     */
+    private final Set<FusableTreeVisitor> failedVisitors = new HashSet<>();
+    /**
+     * Visitors still waiting for the shared walk in the current subtree, the others are visiting it on their own or did not descend into it
+     */
+    private List<FusableTreeVisitor> pendingVisitors = Collections.emptyList();
+    /**
+     * Lists of pending visitors reused by the subtrees of each depth of the walk, where some visitors leave the shared walk
+     */
+    private final List<List<FusableTreeVisitor>> pendingVisitorsByDepth = new ArrayList<>();
+    private int depth = 0;
+
+    FusedTreeVisitorsRunner(List<JavaFileScanner> executableScanners) {
+      fusedVisitors = executableScanners.stream()
+        .filter(IS_FUSED_BY_BRIDGE)
+        .map(FusableTreeVisitor.class::cast)
+        .collect(Collectors.toList());
+      fusedVisitors.forEach(visitor -> kindsByVisitor.put(visitor, SubtreeKinds.none()));
+      for (Method visitMethod : TreeVisitor.class.getMethods()) {
+        for (FusableTreeVisitor visitor : fusedVisitors) {
+          if (overrides(visitor, visitMethod)) {
+            visitorsByVisitMethod.computeIfAbsent(visitMethod, k -> new HashSet<>()).add(visitor);
+          }
+        }
+      }
+    }
+
+    private boolean overrides(FusableTreeVisitor visitor, Method visitMethod) {
+      try {
+        return visitor.getClass().getMethod(visitMethod.getName(), visitMethod.getParameterTypes()).getDeclaringClass() != BaseTreeVisitor.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+
+    public void run(JavaFileScannerContext javaFileScannerContext) {
+      if (fusedVisitors.isEmpty()) {
+        return;
+      }
+      failedVisitors.clear();
+      forEach(fusedVisitors, v -> v.setContext(javaFileScannerContext));
+      pendingVisitors = fusedVisitors.stream().filter(v -> !failedVisitors.contains(v)).collect(Collectors.toList());
+      scan(javaFileScannerContext.getTree());
+      pendingVisitors = Collections.emptyList();
+      forEach(fusedVisitors, v -> v.leaveFile(javaFileScannerContext));
+    }
+
+    @Override
+    protected void scan(@Nullable Tree tree) {
+      if (tree == null || pendingVisitors.isEmpty()) {
+        return;
+      }
+      Optional<Method> visitMethod = visitMethodByTreeClass.computeIfAbsent(tree.getClass(), c -> visitMethod(tree));
+      Tree.Kind kind = tree.kind();
+      if (SubtreeKinds.contains(unknownKinds, kind)) {
+        learnVisitMethod(kind, visitMethod);
+      }
+      if (!visitMethod.isPresent()) {
+        if (tree instanceof ListTree) {
+          // elements of plain lists are visited straight by their accept method
+          for (Tree element : (ListTree<?>) tree) {
+            scan(element);
+          }
+        }
+        return;
+      }
+      Set<FusableTreeVisitor> overridingVisitors = visitorsByVisitMethod.getOrDefault(visitMethod.get(), Collections.emptySet());
+      if (overridingVisitors.isEmpty()) {
+        scanChildren(tree);
+        return;
+      }
+      List<FusableTreeVisitor> visitors = pendingVisitors;
+      if (depth == pendingVisitorsByDepth.size()) {
+        pendingVisitorsByDepth.add(new ArrayList<>(fusedVisitors.size()));
+      }
+      List<FusableTreeVisitor> remainingVisitors = pendingVisitorsByDepth.get(depth);
+      remainingVisitors.clear();
+      for (FusableTreeVisitor visitor : visitors) {
+        if (overridingVisitors.contains(visitor)) {
+          visit(visitor, tree);
+        } else if (!failedVisitors.contains(visitor)) {
+          remainingVisitors.add(visitor);
+        }
+      }
+      pendingVisitors = remainingVisitors;
+      depth++;
+      try {
+        scanChildren(tree);
+      } finally {
+        depth--;
+        pendingVisitors = visitors;
+      }
+    }
+
+    /**
+     * Same as {@link #forEach(Collection, Consumer)} for a single visitor of a tree, without allocation
+     */
+    private void visit(FusableTreeVisitor visitor, Tree tree) {
+      if (!failedVisitors.isEmpty() && failedVisitors.contains(visitor)) {
+        return;
+      }
+      PerformanceMeasure.Duration visitorDuration = PerformanceMeasure.start(visitor);
+      try {
+        tree.accept(visitor);
+      } catch (RuntimeException e) {
+        CheckFailureException failure = checkFailure(e, visitor);
+        interruptIfFailFast(failure);
+        // the walk goes on for the other visitors
+        failedVisitors.add(visitor);
+      } finally {
         visitorDuration.stop();
       }
     }
+
+    private void scanChildren(Tree tree) {
+      if (!pendingVisitors.isEmpty() && mayBeVisited(((JavaTree) tree).subtreeKinds())) {
+        tree.accept(this);
+      }
+    }
+
+    private boolean mayBeVisited(@Nullable long[] subtreeKinds) {
+      if (subtreeKinds == null || SubtreeKinds.intersects(subtreeKinds, unknownKinds)) {
+        return true;
+      }
+      for (FusableTreeVisitor visitor : pendingVisitors) {
+        if (SubtreeKinds.intersects(subtreeKinds, kindsByVisitor.get(visitor))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void learnVisitMethod(Tree.Kind kind, Optional<Method> visitMethod) {
+      Optional<Method> knownVisitMethod = visitMethodByKind.putIfAbsent(kind, visitMethod);
+      if (knownVisitMethod == null) {
+        SubtreeKinds.remove(unknownKinds, kind);
+        visitMethod.ifPresent(method -> visitorsByVisitMethod.getOrDefault(method, Collections.emptySet())
+          .forEach(visitor -> SubtreeKinds.add(kindsByVisitor.get(visitor), kind)));
+      } else if (!knownVisitMethod.equals(visitMethod)) {
+        // trees of this kind are not all visited the same way: they stay unknown for good
+        SubtreeKinds.add(unknownKinds, kind);
+      }
+    }
+
+    private Optional<Method> visitMethod(Tree tree) {
+      if (tree instanceof ListTreeImpl && acceptDeclaringClass(tree) == ListTreeImpl.class) {
+        return Optional.empty();
+      }
+      Method[] visitMethod = new Method[1];
+      tree.accept((TreeVisitor) Proxy.newProxyInstance(TreeVisitor.class.getClassLoader(), new Class<?>[] {TreeVisitor.class}, (proxy, method, args) -> {
+        visitMethod[0] = method;
+        return null;
+      }));
+      return Optional.ofNullable(visitMethod[0]);
+    }
+
+    private Class<?> acceptDeclaringClass(Tree tree) {
+      try {
+        return tree.getClass().getMethod("accept", TreeVisitor.class).getDeclaringClass();
+      } catch (NoSuchMethodException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private void forEach(Collection<FusableTreeVisitor> visitors, Consumer<FusableTreeVisitor> callback) {
+      for (FusableTreeVisitor visitor : visitors) {
+        if (!failedVisitors.isEmpty() && failedVisitors.contains(visitor)) {
+          continue;
+        }
+        PerformanceMeasure.Duration visitorDuration = PerformanceMeasure.start(visitor);
+        try {
+          runScanner(() -> callback.accept(visitor), visitor);
+        } catch (CheckFailureException e) {
+          interruptIfFailFast(e);
+          // the walk goes on for the other visitors
+          failedVisitors.add(visitor);
+        } finally {
+          visitorDuration.stop();
+        }
+      }
+    }
   }
 }
@@ -67,6 +67,8 @@ public class ClassTreeImpl extends JavaTree implements ClassTree {
   private final ListTree<TypeTree> permittedTypes = QualifiedIdentifierListTreeImpl.emptyList();
   @Nullable
   public ITypeBinding typeBinding;
+  @Nullable
+  private long[] subtreeKinds;
 
   public ClassTreeImpl(Kind kind, SyntaxToken openBraceToken, List<Tree> members, SyntaxToken closeBraceToken) {
     this.kind = kind;
@@ -215,6 +217,16 @@ public class ClassTreeImpl extends JavaTree implements ClassTree {
     return atToken;
   }
 
+  @Nullable
+  @Override
+  public long[] subtreeKinds() {
+    return subtreeKinds;
+  }
+
+  public void setSubtreeKinds(long[] subtreeKinds) {
+    this.subtreeKinds = subtreeKinds;
+  }
+
   @Override
   public void accept(TreeVisitor visitor) {
     visitor.visitClass(this);
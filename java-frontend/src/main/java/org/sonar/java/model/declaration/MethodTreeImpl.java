@@ -31,6 +31,7 @@ import org.sonar.java.ast.parser.FormalParametersListTreeImpl;
 import org.sonar.java.ast.parser.QualifiedIdentifierListTreeImpl;
 import org.sonar.java.ast.parser.TypeParameterListTreeImpl;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.MethodDataflow;
 import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.ModifiersUtils;
 import org.sonar.java.model.Symbols;
@@ -74,7 +75,7 @@ public class MethodTreeImpl extends JavaTree implements MethodTree {
   private final ExpressionTree defaultValue;
 
   @Nullable
-  private CFG cfg;
+  private MethodDataflow dataflow;
 
   @Nullable
   public IMethodBinding methodBinding;
@@ -234,10 +235,17 @@ public class MethodTreeImpl extends JavaTree implements MethodTree {
     if (block == null) {
       return null;
     }
-    if (cfg == null) {
-      cfg = CFG.build(this);
+    return dataflow().cfg();
+  }
+
+  /**
+   * CFG and dataflow analyses of the method body, computed once for all their consumers. Only for methods having a body.
+   */
+  public MethodDataflow dataflow() {
+    if (dataflow == null) {
+      dataflow = new MethodDataflow(CFG.build(this));
     }
-    return cfg;
+    return dataflow;
   }
 
   @Override
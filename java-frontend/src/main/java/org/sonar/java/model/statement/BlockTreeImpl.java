@@ -19,6 +19,7 @@
  */
 package org.sonar.java.model.statement;
 
+import javax.annotation.Nullable;
 import org.sonar.java.collections.ListUtils;
 import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.java.model.JavaTree;
@@ -38,6 +39,8 @@ public class BlockTreeImpl extends JavaTree implements BlockTree {
   private final InternalSyntaxToken openBraceToken;
   private final List<StatementTree> body;
   private final InternalSyntaxToken closeBraceToken;
+  @Nullable
+  private long[] subtreeKinds;
 
   public BlockTreeImpl(InternalSyntaxToken openBraceToken, List<StatementTree> body, InternalSyntaxToken closeBraceToken) {
     this(Kind.BLOCK, openBraceToken, body, closeBraceToken);
@@ -70,6 +73,16 @@ public class BlockTreeImpl extends JavaTree implements BlockTree {
     return closeBraceToken;
   }
 
+  @Nullable
+  @Override
+  public long[] subtreeKinds() {
+    return subtreeKinds;
+  }
+
+  public void setSubtreeKinds(long[] subtreeKinds) {
+    this.subtreeKinds = subtreeKinds;
+  }
+
   @Override
   public void accept(TreeVisitor visitor) {
     visitor.visitBlock(this);
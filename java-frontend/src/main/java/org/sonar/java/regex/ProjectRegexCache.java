@@ -0,0 +1,92 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.regex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+
+/**
+ * Immutable results computed from regexes, shared by the files of a project: a regex like "\\s+" is analyzed once, whatever
+ * the number of files using it. Results are identified by the source text and the initial flags of the regex, so they must
+ * not depend on the literals the regex is made of: regex syntax elements, reporting on these literals, are never shared
+ * and each file parses its own regexes, see {@link RegexCache}.
+ * <p>
+ * The least recently used results are evicted once {@link #MAX_CACHE_SIZE} is reached.
+ */
+public final class ProjectRegexCache<V> {
+
+  static final int MAX_CACHE_SIZE = 1_000;
+
+  private final Map<Key, V> cache = new LinkedHashMap<Key, V>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+      return size() > MAX_CACHE_SIZE;
+    }
+  };
+
+  public V computeIfAbsent(RegexParseResult regex, Function<RegexParseResult, V> resultComputer) {
+    Key key = new Key(regex.getResult().getSource().getSourceText(), regex.getInitialFlags());
+    V result = cache.get(key);
+    if (result == null) {
+      result = resultComputer.apply(regex);
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  int size() {
+    return cache.size();
+  }
+
+  /**
+   * Initial flags are created from the int constants of {@link java.util.regex.Pattern}, without any source character:
+   * they are identified by their mask.
+   */
+  static final class Key {
+    private final String sourceText;
+    private final int flags;
+
+    Key(String sourceText, FlagSet initialFlags) {
+      this.sourceText = sourceText;
+      this.flags = initialFlags.getMask();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return flags == key.flags && sourceText.equals(key.sourceText);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sourceText, flags);
+    }
+  }
+}
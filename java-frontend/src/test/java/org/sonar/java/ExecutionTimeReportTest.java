@@ -29,6 +29,7 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.utils.log.LogTesterJUnit5;
 import org.sonar.api.utils.log.LoggerLevel;
+import org.sonar.java.model.SourceText;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -211,6 +212,18 @@ class ExecutionTimeReportTest {
       "    default_size (50000ms, -1B)");
   }
 
+  @Test
+  void use_length_of_the_source_already_read() throws IOException {
+    InputFile inputFile = mockEmptyInputFile("already_read");
+    when(inputFile.contents()).thenThrow(IOException.class);
+    report.start(inputFile);
+    clock.addMilliseconds(50_000);
+    report.end(new SourceText("class A {}"));
+    report.report();
+    assertThat(logTester.logs(LoggerLevel.INFO)).contains("Slowest analyzed files:" + NL +
+      "    already_read (50000ms, 10B)");
+  }
+
   private static class UnitTestClock extends Clock {
 
     private Instant instant;
@@ -21,6 +21,7 @@ package org.sonar.java;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -38,6 +39,7 @@ import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.java.PerformanceMeasure.Duration;
 import org.sonar.java.PerformanceMeasure.DurationReport;
+import org.sonar.java.PerformanceMeasure.ResourceMeter;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -252,6 +254,165 @@ class PerformanceMeasureTest {
     assertThat(logTester.logs(LoggerLevel.ERROR)).isEmpty();
   }
 
+  @Test
+  void measures_of_other_threads_should_be_merged(@TempDir File workDir) throws InterruptedException {
+    Configuration config = createConfig(true, null, LoggerLevel.DEBUG);
+    DurationReport duration = PerformanceMeasure.start(config, "root", timeNanos::get);
+    Duration duration_1 = PerformanceMeasure.start("cat-1");
+    PerformanceMeasure measureToContinue = PerformanceMeasure.current();
+
+    List<PerformanceMeasure> measuresOfThread = new ArrayList<>();
+    Thread thread = new Thread(() -> {
+      // not recorded, the thread does not continue any measure
+      PerformanceMeasure.start("ignored").stop();
+      for (int i = 0; i < 2; i++) {
+        Duration threadDuration = PerformanceMeasure.fork(measureToContinue);
+        Duration duration_1_1 = PerformanceMeasure.start("sub-cat-1");
+        timeNanos.addAndGet(1_000L);
+        duration_1_1.stop();
+        threadDuration.stop();
+      }
+      measuresOfThread.add(PerformanceMeasure.current());
+    });
+    thread.start();
+    thread.join();
+    assertThat(measuresOfThread).containsExactly((PerformanceMeasure) null);
+
+    Duration duration_1_1 = PerformanceMeasure.start("sub-cat-1");
+    timeNanos.addAndGet(500L);
+    duration_1_1.stop();
+    duration_1.stop();
+    duration.stopAndLog(workDir, false);
+
+    assertThat(logTester.logs(LoggerLevel.DEBUG)).contains("Performance Measures:\n" +
+      "{ \"name\": \"root\", \"calls\": 1, \"durationNanos\": 2500, \"children\": [\n" +
+      "    { \"name\": \"cat-1\", \"calls\": 1, \"durationNanos\": 2500, \"children\": [\n" +
+      "        { \"name\": \"sub-cat-1\", \"calls\": 3, \"durationNanos\": 2500 }\n" +
+      "      ]\n" +
+      "    }\n" +
+      "  ]\n" +
+      "}");
+  }
+
+  @Test
+  void cpu_time_allocated_bytes_and_files(@TempDir File workDir) throws IOException {
+    AtomicLong cpuNanos = new AtomicLong();
+    AtomicLong allocatedBytes = new AtomicLong();
+    ResourceMeter resourceMeter = new ResourceMeter() {
+      @Override
+      public long cpuTimeNanos() {
+        return cpuNanos.get();
+      }
+
+      @Override
+      public long allocatedBytes() {
+        return allocatedBytes.get();
+      }
+    };
+    Configuration config = createConfig(true, null, LoggerLevel.DEBUG);
+    DurationReport duration = PerformanceMeasure.start(config, "root", timeNanos::get, resourceMeter);
+
+    Duration file_1 = PerformanceMeasure.startFile("A.java");
+    Duration duration_1 = PerformanceMeasure.start("check");
+    timeNanos.addAndGet(100L);
+    cpuNanos.addAndGet(80L);
+    allocatedBytes.addAndGet(1_000L);
+    duration_1.stop();
+    timeNanos.addAndGet(10L);
+    cpuNanos.addAndGet(5L);
+    allocatedBytes.addAndGet(20L);
+    file_1.stop();
+
+    Duration file_2 = PerformanceMeasure.startFile("B.java");
+    Duration duration_2 = PerformanceMeasure.start("check");
+    timeNanos.addAndGet(200L);
+    cpuNanos.addAndGet(150L);
+    allocatedBytes.addAndGet(3_000L);
+    duration_2.stop();
+    file_2.stop();
+    duration.stopAndLog(workDir, false);
+
+    Path jsonPath = workDir.toPath().resolve("sonar.java.performance.measure.json");
+    assertThat(new String(Files.readAllBytes(jsonPath), UTF_8)).isEqualTo("" +
+      "{ \"name\": \"root\", \"calls\": 1, \"durationNanos\": 310, \"cpuNanos\": 235, \"allocatedBytes\": 4020, \"children\": [\n" +
+      "    { \"name\": \"check\", \"calls\": 2, \"durationNanos\": 300, \"cpuNanos\": 230, \"allocatedBytes\": 4000 }\n" +
+      "  ],\n" +
+      "  \"files\": [\n" +
+      "    { \"name\": \"B.java\", \"calls\": 1, \"durationNanos\": 200, \"cpuNanos\": 150, \"allocatedBytes\": 3000, \"children\": [\n" +
+      "        { \"name\": \"check\", \"calls\": 1, \"durationNanos\": 200, \"cpuNanos\": 150, \"allocatedBytes\": 3000 }\n" +
+      "      ]\n" +
+      "    },\n" +
+      "    { \"name\": \"A.java\", \"calls\": 1, \"durationNanos\": 110, \"cpuNanos\": 85, \"allocatedBytes\": 1020, \"children\": [\n" +
+      "        { \"name\": \"check\", \"calls\": 1, \"durationNanos\": 100, \"cpuNanos\": 80, \"allocatedBytes\": 1000 }\n" +
+      "      ]\n" +
+      "    }\n" +
+      "  ]\n" +
+      "}");
+    assertThat(new String(Files.readAllBytes(workDir.toPath().resolve("sonar.java.performance.measure.wall.folded")), UTF_8))
+      .isEqualTo("root 10\nroot;check 300\n");
+    assertThat(new String(Files.readAllBytes(workDir.toPath().resolve("sonar.java.performance.measure.cpu.folded")), UTF_8))
+      .isEqualTo("root 5\nroot;check 230\n");
+    assertThat(new String(Files.readAllBytes(workDir.toPath().resolve("sonar.java.performance.measure.alloc.folded")), UTF_8))
+      .isEqualTo("root 20\nroot;check 4000\n");
+
+    // measures and files of another analysis are merged
+    duration = PerformanceMeasure.start(config, "root", timeNanos::get, resourceMeter);
+    Duration file_3 = PerformanceMeasure.startFile("C.java");
+    cpuNanos.addAndGet(100L);
+    file_3.stop();
+    duration.stopAndLog(workDir, false);
+    assertThat(new String(Files.readAllBytes(jsonPath), UTF_8)).isEqualTo("" +
+      "{ \"name\": \"root\", \"calls\": 2, \"durationNanos\": 310, \"cpuNanos\": 335, \"allocatedBytes\": 4020, \"children\": [\n" +
+      "    { \"name\": \"check\", \"calls\": 2, \"durationNanos\": 300, \"cpuNanos\": 230, \"allocatedBytes\": 4000 }\n" +
+      "  ],\n" +
+      "  \"files\": [\n" +
+      "    { \"name\": \"B.java\", \"calls\": 1, \"durationNanos\": 200, \"cpuNanos\": 150, \"allocatedBytes\": 3000, \"children\": [\n" +
+      "        { \"name\": \"check\", \"calls\": 1, \"durationNanos\": 200, \"cpuNanos\": 150, \"allocatedBytes\": 3000 }\n" +
+      "      ]\n" +
+      "    },\n" +
+      "    { \"name\": \"C.java\", \"calls\": 1, \"durationNanos\": 0, \"cpuNanos\": 100, \"allocatedBytes\": 0 },\n" +
+      "    { \"name\": \"A.java\", \"calls\": 1, \"durationNanos\": 110, \"cpuNanos\": 85, \"allocatedBytes\": 1020, \"children\": [\n" +
+      "        { \"name\": \"check\", \"calls\": 1, \"durationNanos\": 100, \"cpuNanos\": 80, \"allocatedBytes\": 1000 }\n" +
+      "      ]\n" +
+      "    }\n" +
+      "  ]\n" +
+      "}");
+  }
+
+  @Test
+  void thread_resources() {
+    ResourceMeter resourceMeter = PerformanceMeasure.THREAD_RESOURCES;
+    com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    boolean cpuTimeEnabled = threadMXBean.isThreadCpuTimeEnabled();
+    boolean allocatedMemoryEnabled = threadMXBean.isThreadAllocatedMemoryEnabled();
+    threadMXBean.setThreadCpuTimeEnabled(false);
+    threadMXBean.setThreadAllocatedMemoryEnabled(false);
+    resourceMeter.enable();
+    resourceMeter.enable();
+    assertThat(threadMXBean.isThreadCpuTimeEnabled()).isTrue();
+    assertThat(threadMXBean.isThreadAllocatedMemoryEnabled()).isTrue();
+    long cpuNanos = resourceMeter.cpuTimeNanos();
+    long allocatedBytes = resourceMeter.allocatedBytes();
+    List<int[]> arrays = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      arrays.add(new int[1_000]);
+    }
+    assertThat(arrays).hasSize(100);
+    assertThat(resourceMeter.cpuTimeNanos()).isGreaterThanOrEqualTo(cpuNanos);
+    assertThat(resourceMeter.allocatedBytes()).isGreaterThan(allocatedBytes);
+
+    // settings of the JVM are restored once the last measure is stopped
+    resourceMeter.restore();
+    assertThat(threadMXBean.isThreadCpuTimeEnabled()).isTrue();
+    resourceMeter.restore();
+    assertThat(threadMXBean.isThreadCpuTimeEnabled()).isFalse();
+    assertThat(threadMXBean.isThreadAllocatedMemoryEnabled()).isFalse();
+    resourceMeter.restore();
+    assertThat(threadMXBean.isThreadCpuTimeEnabled()).isFalse();
+    threadMXBean.setThreadCpuTimeEnabled(cpuTimeEnabled);
+    threadMXBean.setThreadAllocatedMemoryEnabled(allocatedMemoryEnabled);
+  }
+
   @Test
   void ensure_parent_directory_exists(@TempDir Path workDir) throws IOException {
     assertThatNoException().isThrownBy(() -> ensureParentDirectoryExists(Paths.get("file-without-parent.json")));
@@ -147,6 +147,74 @@ class JavaAstScannerTest {
     verifyNoMoreInteractions(visitor);
   }
 
+  @Test
+  void should_visit_files_in_order_when_parsing_in_parallel() {
+    List<String> visitedFiles = new ArrayList<>();
+    JavaFileScanner visitor = context -> visitedFiles.add(context.getInputFile().filename());
+    context.setSettings(new MapSettings().setProperty(SonarComponents.ANALYSIS_THREADS_KEY, 2));
+    DefaultFileSystem fileSystem = context.fileSystem();
+    SonarComponents sonarComponents = new SonarComponents(null, fileSystem, new ClasspathForMain(context.config(), fileSystem),
+      new ClasspathForTest(context.config(), fileSystem), null);
+    sonarComponents.setSensorContext(context);
+    JavaAstScanner scanner = new JavaAstScanner(sonarComponents);
+    FakeAuditListener listener = spy(new FakeAuditListener());
+    scanner.setVisitorBridge(new VisitorsBridge(Arrays.asList(visitor, listener), new ArrayList<>(), sonarComponents));
+    scanner.scan(Arrays.asList(
+      TestUtils.inputFile("src/test/files/metrics/Classes.java"),
+      TestUtils.inputFile("src/test/files/metrics/Methods.java"),
+      TestUtils.inputFile("src/test/resources/AstScannerParseError.txt"),
+      TestUtils.inputFile("src/test/files/metrics/Comments.java"),
+      TestUtils.inputFile("src/test/files/metrics/NoSonar.java"),
+      TestUtils.inputFile("src/test/files/metrics/Complexity.java")
+    ));
+
+    assertThat(visitedFiles).containsExactly("Classes.java", "Methods.java", "AstScannerParseError.txt", "Comments.java", "NoSonar.java", "Complexity.java");
+    verify(listener).processRecognitionException(any(RecognitionException.class));
+    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(2).anyMatch(log -> log.startsWith("Unable to parse source file"));
+  }
+
+  @Test
+  void should_visit_files_in_order_when_resolving_files_by_batches() {
+    List<String> visitedFiles = new ArrayList<>();
+    JavaFileScanner visitor = context -> visitedFiles.add(context.getInputFile().filename());
+    context.setSettings(new MapSettings().setProperty(SonarComponents.ANALYSIS_BATCH_SIZE_KEY, 2));
+    DefaultFileSystem fileSystem = context.fileSystem();
+    SonarComponents sonarComponents = new SonarComponents(null, fileSystem, new ClasspathForMain(context.config(), fileSystem),
+      new ClasspathForTest(context.config(), fileSystem), null);
+    sonarComponents.setSensorContext(context);
+    JavaAstScanner scanner = new JavaAstScanner(sonarComponents);
+    FakeAuditListener listener = spy(new FakeAuditListener());
+    scanner.setVisitorBridge(new VisitorsBridge(Arrays.asList(visitor, listener), new ArrayList<>(), sonarComponents));
+    scanner.scan(Arrays.asList(
+      TestUtils.inputFile("src/test/files/metrics/Classes.java"),
+      TestUtils.inputFile("src/test/files/metrics/Methods.java"),
+      TestUtils.inputFile("src/test/files/metrics/Comments.java"),
+      TestUtils.inputFile("src/test/resources/AstScannerParseError.txt"),
+      TestUtils.inputFile("src/test/resources/AstScannerNoParseError.txt"),
+      TestUtils.inputFile("src/test/files/metrics/NoSonar.java")
+    ));
+
+    assertThat(visitedFiles).containsExactly("Classes.java", "Methods.java", "Comments.java", "AstScannerParseError.txt", "AstScannerNoParseError.txt", "NoSonar.java");
+    verify(listener).processRecognitionException(any(RecognitionException.class));
+    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(2).anyMatch(log -> log.startsWith("Unable to parse source file"));
+  }
+
+  @Test
+  void should_propagate_SOError_when_parsing_in_parallel() {
+    context.setSettings(new MapSettings().setProperty(SonarComponents.ANALYSIS_THREADS_KEY, 2));
+    SonarComponents sonarComponents = new SonarComponents(null, context.fileSystem(), null, null, null);
+    sonarComponents.setSensorContext(context);
+    JavaAstScanner scanner = new JavaAstScanner(sonarComponents);
+    scanner.setVisitorBridge(new VisitorsBridge(Collections.singletonList(new CheckThrowingSOError()), new ArrayList<>(), sonarComponents));
+    List<InputFile> files = Arrays.asList(
+      TestUtils.inputFile("src/test/resources/AstScannerNoParseError.txt"),
+      TestUtils.inputFile("src/test/files/metrics/Classes.java"));
+
+    StackOverflowError error = assertThrows(StackOverflowError.class, () -> scanner.scan(files));
+    assertThat(error.getMessage()).isEqualTo("boom");
+    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(1).allMatch(log -> log.startsWith("A stack overflow error occurred while analyzing file"));
+  }
+
   @Test
   void should_interrupt_analysis_when_InterruptedException_is_thrown() {
     InputFile inputFile = TestUtils.inputFile("src/test/files/metrics/NoSonar.java");
@@ -127,6 +127,28 @@ class LiveVariablesTest {
     assertThat(liveVariables.getOut(cfg.reversedBlocks().get(3))).isEmpty();
   }
 
+  @Test
+  void test_loop_liveness_with_many_variables() {
+    StringBuilder method = new StringBuilder("void foo(int a) { int sum = 0;");
+    for (int i = 0; i < 100; i++) {
+      method.append("int v").append(i).append(" = a;");
+    }
+    method.append("while (a > 0) { switch (a) {");
+    for (int i = 0; i < 100; i++) {
+      method.append("case ").append(i).append(": sum += v").append(i).append("; break;");
+    }
+    method.append("} a--; } foo(sum); }");
+    CFG cfg = buildCFG(method.toString());
+    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+
+    // the 100 variables, sum and the parameter are live once all declared
+    CFG.Block declarations = cfg.entryBlock();
+    assertThat(liveVariables.getOut(declarations)).hasSize(102);
+    assertThat(liveVariables.getIn(declarations)).extracting(Symbol::name).containsOnly("a");
+    assertThat(liveVariables.getOut(declarations)).isSameAs(liveVariables.getOut(declarations));
+    assertThat(liveVariables.getOut(cfg.reversedBlocks().get(0))).isEmpty();
+  }
+
   @Test
   void test_fields_live() {
     assertFieldsByMethodEntry("void foo(int a) {  foo(field1); foo(); field2 = 1;}", "field1");
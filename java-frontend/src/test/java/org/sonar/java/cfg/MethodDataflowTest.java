@@ -0,0 +1,58 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.cfg;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodDataflowTest {
+
+  private static final CFGTestLoader loader = new CFGTestLoader("src/test/files/cfg/CFGLoopTest.java");
+
+  @Test
+  void results_should_be_computed_once_per_method() {
+    MethodTree method = loader.getMethod("CFGLoopTest", "simpleWhileLoop");
+    MethodDataflow dataflow = MethodDataflow.of(method);
+
+    assertThat(MethodDataflow.of(method)).isSameAs(dataflow);
+    assertThat(method.cfg()).isSameAs(dataflow.cfg());
+    assertThat(dataflow.liveVariables()).isSameAs(dataflow.liveVariables());
+    assertThat(dataflow.liveVariablesWithFields())
+      .isSameAs(dataflow.liveVariablesWithFields())
+      .isNotSameAs(dataflow.liveVariables());
+    assertThat(dataflow.loops())
+      .hasSize(1)
+      .isSameAs(dataflow.loops());
+  }
+
+  @Test
+  void results_should_match_direct_analyses() {
+    MethodDataflow dataflow = MethodDataflow.of(loader.getMethod("CFGLoopTest", "simpleWhileLoopWithBreak"));
+    CFG cfg = dataflow.cfg();
+    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+    for (CFG.Block block : cfg.blocks()) {
+      assertThat(dataflow.liveVariables().getIn(block)).isEqualTo(liveVariables.getIn(block));
+      assertThat(dataflow.liveVariables().getOut(block)).isEqualTo(liveVariables.getOut(block));
+    }
+    assertThat(dataflow.loops().keySet()).isEqualTo(CFGLoop.getCFGLoops(cfg).keySet());
+  }
+}
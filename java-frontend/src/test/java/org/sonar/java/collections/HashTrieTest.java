@@ -0,0 +1,179 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.collections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashTrieTest {
+
+  private static final class Key {
+    private final int hashCode;
+    private final String toString;
+
+    private Key(int hashCode, String toString) {
+      this.hashCode = hashCode;
+      this.toString = toString;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return toString;
+    }
+  }
+
+  @Test
+  void collisions() {
+    Object k1 = new Key(42, "k1");
+    Object k2 = new Key(42, "k2");
+    Object k3 = new Key(42, "k3");
+    HashTrie<Object, Object> t = HashTrie.create()
+      .put(k1, "v1")
+      .put(k2, "v2");
+    HashTrie<Object, Object> t2 = HashTrie.create()
+      .put(k2, "v2")
+      .put(k1, "v1");
+
+    assertThat(t).isEqualTo(t2).hasSameHashCodeAs(t2);
+    assertThat(t2).isEqualTo(t);
+    assertThat(t.hashCode())
+      .isEqualTo(((31 * k1.hashCode()) ^ "v1".hashCode()) + ((31 * k2.hashCode()) ^ "v2".hashCode()))
+      .isEqualTo(AVLTree.create().put(k1, "v1").put(k2, "v2").hashCode());
+
+    assertThat(t.get(k1)).isEqualTo("v1");
+    assertThat(t.get(k2)).isEqualTo("v2");
+    assertThat(t.get(k3)).isNull();
+
+    assertThat(t.put(k2, "new v2").get(k2)).isEqualTo("new v2");
+    assertThat(t.put(k1, "v1")).isSameAs(t);
+    assertThat(t.put(k3, "v3").size()).isEqualTo(3);
+    assertThat(t.put(k3, "v3").remove(k3)).isEqualTo(t);
+    assertThat(t.remove(k3)).isSameAs(t);
+    assertThat(t.remove(k2)).isEqualTo(HashTrie.create().put(k1, "v1"));
+    assertThat(t.remove(k1).remove(k2)).isSameAs(HashTrie.create());
+    assertThat(t.put(k1, "other")).isNotEqualTo(t);
+  }
+
+  @Test
+  void shape_should_not_depend_on_order_of_construction() {
+    // keys sharing the first levels of their hash codes
+    Object o1 = new Key(0b00001, "o1");
+    Object o2 = new Key(0b00001 | (1 << 5), "o2");
+    Object o3 = new Key(0b00001 | (1 << 10), "o3");
+    Object o4 = new Key(0, "o4");
+    HashTrie<Object, Object> t1 = HashTrie.create().add(o1).add(o2).add(o3).add(o4);
+    HashTrie<Object, Object> t2 = HashTrie.create().add(o4).add(o3).add(o2).add(o1);
+    assertThat(t1).isEqualTo(t2).hasSameHashCodeAs(t2);
+    assertThat(t1).hasToString(" o4->o4 o1->o1 o2->o2 o3->o3");
+
+    assertThat(t1.remove(o2).remove(o3))
+      .as("single entries are inlined back")
+      .isEqualTo(HashTrie.create().add(o1).add(o4));
+    assertThat(t1.remove(o2)).isNotEqualTo(t1.remove(o3));
+  }
+
+  @Test
+  void test_empty() {
+    HashTrie<String, String> t = HashTrie.create();
+    assertThat(t).isSameAs(HashTrie.create());
+    assertThat(t.isEmpty()).isTrue();
+    assertThat(t.get("anything")).isNull();
+    assertThat(t.remove("anything")).isSameAs(t);
+    assertThat(t).hasToString("");
+    assertThat(t.hashCode()).isZero();
+    assertThat(t.put("1", "a").isEmpty()).isFalse();
+    assertThat(t).isNotEqualTo(AVLTree.create());
+  }
+
+  @Test
+  void should_behave_like_a_map() {
+    Random random = new Random(42);
+    Map<Object, Object> expected = new HashMap<>();
+    HashTrie<Object, Object> t = HashTrie.create();
+    List<Object> keys = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      // few distinct hash codes, to have collisions and deep sub-nodes
+      keys.add(new Key(random.nextInt(64) * 0x01010101, "k" + i));
+    }
+    for (int i = 0; i < 5_000; i++) {
+      Object key = keys.get(random.nextInt(keys.size()));
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        t = t.remove(key);
+      } else {
+        Integer value = random.nextInt(4);
+        expected.put(key, value);
+        t = t.put(key, value);
+      }
+      assertThat(t.size()).isEqualTo(expected.size());
+    }
+    for (Object key : keys) {
+      assertThat(t.get(key)).isEqualTo(expected.get(key));
+    }
+    Map<Object, Object> entries = new HashMap<>();
+    t.forEach((k, v) -> assertThat(entries.put(k, v)).as("unique key").isNull());
+    assertThat(entries).isEqualTo(expected);
+    Set<Object> elements = new HashSet<>();
+    t.forEach(elements::add);
+    assertThat(elements).isEqualTo(expected.keySet());
+
+    List<Map.Entry<Object, Object>> shuffled = new ArrayList<>(expected.entrySet());
+    Collections.shuffle(shuffled, random);
+    HashTrie<Object, Object> rebuilt = HashTrie.create();
+    for (Map.Entry<Object, Object> entry : shuffled) {
+      rebuilt = rebuilt.put(entry.getKey(), entry.getValue());
+    }
+    assertThat(rebuilt).isEqualTo(t).hasSameHashCodeAs(t);
+  }
+
+  @Test
+  void test_set() {
+    HashTrie<Integer, Integer> t = HashTrie.create();
+    for (int i = 0; i < 100; i++) {
+      t = t.add(i);
+      assertThat(t.add(i)).isSameAs(t);
+    }
+    AVLTree<Integer, Integer> avl = AVLTree.create();
+    for (int i = 0; i < 100; i++) {
+      avl = avl.add(i);
+      assertThat(t.contains(i)).isTrue();
+    }
+    assertThat(t).hasSameHashCodeAs(avl).hasToString(avl.toString());
+    for (int i = 0; i < 100; i++) {
+      t = t.remove(i);
+      assertThat(t.contains(i)).isFalse();
+    }
+    assertThat(t).isSameAs(HashTrie.create());
+  }
+}
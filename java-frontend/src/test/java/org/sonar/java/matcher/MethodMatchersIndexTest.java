@@ -0,0 +1,159 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodReferenceTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.NewClassTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodMatchersIndexTest {
+
+  private static final CompilationUnitTree TREE = JParserTestUtils.parse("class A {\n"
+    + "  void f() {\n"
+    + "    g(1);\n"
+    + "    g();\n"
+    + "    h();\n"
+    + "    new A();\n"
+    + "    Runnable r = this::h;\n"
+    + "    unknown();\n"
+    + "  }\n"
+    + "  void g(int i) { }\n"
+    + "  void g() { }\n"
+    + "  void h() { }\n"
+    + "}");
+
+  @Test
+  void known_names_and_parameters_counts() {
+    MethodMatchersBuilder builder = (MethodMatchersBuilder) MethodMatchers.create().ofAnyType().names("g", "h").addParametersMatcher("int").addWithoutParametersMatcher();
+    assertThat(builder.knownNames()).containsExactlyInAnyOrder("g", "h");
+    assertThat(builder.knownParametersCounts()).containsExactlyInAnyOrder(1, 0);
+
+    builder = (MethodMatchersBuilder) ((MethodMatchersBuilder) MethodMatchers.create().ofAnyType().names("g")).name("h"::equals).withAnyParameters();
+    assertThat(builder.knownNames()).isNull();
+    assertThat(builder.knownParametersCounts()).isNull();
+
+    builder = (MethodMatchersBuilder) MethodMatchers.create().ofAnyType().anyName().addParametersMatcher("int").addParametersMatcher(parameters -> true);
+    assertThat(builder.knownNames()).isNull();
+    assertThat(builder.knownParametersCounts()).isNull();
+  }
+
+  @Test
+  void should_find_matching_subscribers() {
+    MethodMatchersIndex<String> index = new MethodMatchersIndex<>();
+    index.add(MethodMatchers.create().ofTypes("A").names("g").addParametersMatcher("int").build(), "g(int)");
+    index.add(MethodMatchers.create().ofTypes("A").names("g", "h").addWithoutParametersMatcher().build(), "g()/h()");
+    index.add(MethodMatchers.or(
+      MethodMatchers.create().ofTypes("A").constructor().withAnyParameters().build(),
+      MethodMatchers.create().ofTypes("B").anyName().withAnyParameters().build(),
+      MethodMatchers.none()), "new A()");
+    index.add(MethodMatchers.create().ofTypes("A").anyName().addWithoutParametersMatcher().build(), "any name without parameters");
+    index.add(MethodMatchers.none(), "none");
+
+    assertThat(matching(index)).containsExactly(
+      "3: [g(int)]",
+      "4: [any name without parameters, g()/h()]",
+      "5: [any name without parameters, g()/h()]",
+      "6: [any name without parameters, new A()]",
+      "7: [any name without parameters, g()/h()]",
+      "8: []");
+  }
+
+  @Test
+  void other_matchers_should_be_evaluated_for_every_invocation() {
+    MethodMatchersIndex<String> index = new MethodMatchersIndex<>();
+    index.add(new AllMethodInvocations(), "all invocations");
+
+    assertThat(matching(index)).containsExactly(
+      "3: [all invocations]",
+      "4: [all invocations]",
+      "5: [all invocations]",
+      "6: []",
+      "7: []",
+      "8: [all invocations]");
+    assertThat(index.matching(TREE)).isEmpty();
+  }
+
+  private static List<String> matching(MethodMatchersIndex<String> index) {
+    List<String> result = new ArrayList<>();
+    TREE.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitMethodInvocation(MethodInvocationTree tree) {
+        add(tree);
+      }
+
+      @Override
+      public void visitNewClass(NewClassTree tree) {
+        add(tree);
+      }
+
+      @Override
+      public void visitMethodReference(MethodReferenceTree tree) {
+        add(tree);
+      }
+
+      private void add(Tree tree) {
+        Set<String> subscribers = index.matching(tree);
+        result.add(tree.firstToken().line() + ": " + subscribers.stream().sorted().collect(Collectors.toList()));
+      }
+    });
+    return result;
+  }
+
+  private static class AllMethodInvocations implements MethodMatchers {
+    @Override
+    public boolean matches(NewClassTree newClassTree) {
+      return false;
+    }
+
+    @Override
+    public boolean matches(MethodInvocationTree mit) {
+      return true;
+    }
+
+    @Override
+    public boolean matches(MethodTree methodTree) {
+      return false;
+    }
+
+    @Override
+    public boolean matches(MethodReferenceTree methodReferenceTree) {
+      return false;
+    }
+
+    @Override
+    public boolean matches(Symbol symbol) {
+      return false;
+    }
+  }
+}
@@ -111,13 +111,26 @@ class DefaultJavaFileScannerContextTest {
   }
 
   @Test
-  void get_file_content() {
-    assertThat(context.getFileContent()).isEqualTo("content");
+  void get_file_content() throws Exception {
+    assertThat(context.getFileContent()).isEqualTo(JAVA_INPUT_FILE.contents());
   }
 
   @Test
   void get_file_lines() {
-    assertThat(context.getFileLines()).isEmpty();
+    List<String> lines = context.getFileLines();
+    assertThat(lines).hasSize(compilationUnitTree.lastToken().line());
+    // each caller gets its own mutable copy of the shared lines
+    assertThat(context.getFileLines()).isEqualTo(lines).isNotSameAs(lines);
+    lines.clear();
+    assertThat(context.getFileLines()).isNotEmpty();
+  }
+
+  @Test
+  void get_file_content_and_lines_of_file_which_could_not_be_parsed() {
+    CompilationUnitTree emptyTree = new JavaTree.CompilationUnitTreeImpl(null, new ArrayList<>(), new ArrayList<>(), null, null);
+    DefaultJavaFileScannerContext unparsedContext = new DefaultJavaFileScannerContext(emptyTree, JAVA_INPUT_FILE, null, sonarComponents, new JavaVersionImpl(), false);
+    assertThat(unparsedContext.getFileContent()).isEqualTo("content");
+    assertThat(unparsedContext.getFileLines()).isEmpty();
   }
 
   @Test
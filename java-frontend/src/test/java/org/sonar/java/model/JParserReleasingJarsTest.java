@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.migrationsupport.rules.EnableRuleMigrationSupport;
+import org.eclipse.jdt.core.dom.ClasspathNameEnvironment;
 import org.junit.rules.TemporaryFolder;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.ClassTree;
@@ -114,6 +115,26 @@ class JParserReleasingJarsTest {
     assertThat(newJar).doesNotExist();
   }
 
+  @Test
+  void shared_environment_should_resolve_all_files_and_release_jar_after_use() throws Exception {
+    File newJar = new File(temp.newFolder(), "project4.jar");
+    Files.copy(new File(PROJECT_JAR), newJar);
+
+    ClasspathNameEnvironment environment = JParser.createEnvironment(Collections.singletonList(newJar));
+    for (int i = 0; i < 2; i++) {
+      JavaTree.CompilationUnitTreeImpl cu = (JavaTree.CompilationUnitTreeImpl) JParser.parse(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION, "B", SOURCE, environment);
+      Symbol foo = getFooSymbol(cu);
+      assertThat(((Symbol.MethodSymbol) foo).signature()).isEqualTo("org.foo.A#foo(Z)I");
+      // does not release the shared environment
+      cu.sema.cleanupEnvironment();
+    }
+
+    environment.release();
+
+    assertThat(newJar.delete()).isTrue();
+    assertThat(newJar).doesNotExist();
+  }
+
   private static Symbol getFooSymbol(JavaTree.CompilationUnitTreeImpl cu) {
     ClassTree b = (ClassTree) cu.types().get(0);
     MethodTree m = (MethodTree) b.members().get(0);
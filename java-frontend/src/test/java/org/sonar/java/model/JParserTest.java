@@ -27,22 +27,32 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.ProviderNotFoundException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.core.dom.ClasspathNameEnvironment;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.sonar.java.model.JavaTree.CompilationUnitTreeImpl;
+import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.EnumConstantTree;
+import org.sonar.plugins.java.api.tree.IfStatementTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.ReturnStatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -80,6 +90,38 @@ class JParserTest {
         classpath));
   }
 
+  @Test
+  void batch_should_resolve_types_declared_by_other_units() {
+    Map<String, String> sources = new LinkedHashMap<>();
+    sources.put("A.java", "package p;\nclass A { B b() { return new B(); } }");
+    sources.put("B.java", "package p;\nclass B { int foo() { return new A().b().foo(); } }");
+    sources.put("C.java", "package p;\nclass C {");
+    Map<String, CompilationUnitTree> trees = new LinkedHashMap<>();
+    List<String> syntaxErrors = new ArrayList<>();
+
+    ClasspathNameEnvironment environment = JParser.createEnvironment(Collections.emptyList());
+    try {
+      JParser.parseAsBatch(JParser.MAXIMUM_SUPPORTED_JAVA_VERSION, sources, environment, (unitName, parsing) -> {
+        try {
+          trees.put(unitName, parsing.get());
+        } catch (RecognitionException e) {
+          syntaxErrors.add(unitName);
+        }
+      });
+    } finally {
+      environment.release();
+    }
+
+    assertThat(trees).containsOnlyKeys("A.java", "B.java");
+    assertThat(syntaxErrors).containsExactly("C.java");
+    ClassTree b = (ClassTree) trees.get("B.java").types().get(0);
+    MethodTree foo = (MethodTree) b.members().get(0);
+    ReturnStatementTree returnStatement = (ReturnStatementTree) foo.block().body().get(0);
+    MethodInvocationTree invocation = (MethodInvocationTree) returnStatement.expression();
+    assertThat(((Symbol.MethodSymbol) invocation.symbol()).signature()).isEqualTo("p.B#foo()I");
+    assertThat(((CompilationUnitTreeImpl) trees.get("A.java")).sema.undefinedTypes).isEmpty();
+  }
+
   @Test
   void should_throw_RecognitionException_in_case_of_lexical_error() {
     // Note that without check for errors will cause InvalidInputException
@@ -92,6 +134,55 @@ class JParserTest {
     assertThrows(IndexOutOfBoundsException.class, () -> test("interface Foo { public foo(); // comment\n }"));
   }
 
+  @Test
+  void should_compute_positions_of_tokens_and_comments() {
+    CompilationUnitTree cut = test("class A {\r\n  int a; // c\r  /* d\n e */ int b;\n\n\t}");
+    ClassTree classTree = (ClassTree) cut.types().get(0);
+    assertThat(classTree.openBraceToken().line()).isEqualTo(1);
+    assertThat(classTree.openBraceToken().column()).isEqualTo(8);
+    VariableTree a = (VariableTree) classTree.members().get(0);
+    assertThat(a.firstToken().line()).isEqualTo(2);
+    assertThat(a.firstToken().column()).isEqualTo(2);
+    VariableTree b = (VariableTree) classTree.members().get(1);
+    SyntaxToken intToken = b.firstToken();
+    assertThat(intToken.line()).isEqualTo(4);
+    assertThat(intToken.column()).isEqualTo(6);
+    assertThat(intToken.trivias()).hasSize(2);
+    assertThat(intToken.trivias().get(0).startLine()).isEqualTo(2);
+    assertThat(intToken.trivias().get(0).column()).isEqualTo(9);
+    assertThat(intToken.trivias().get(1).startLine()).isEqualTo(3);
+    assertThat(intToken.trivias().get(1).column()).isEqualTo(2);
+    assertThat(classTree.closeBraceToken().line()).isEqualTo(6);
+    assertThat(classTree.closeBraceToken().column()).isEqualTo(1);
+    assertThat(cut.eofToken().line()).isEqualTo(6);
+    assertThat(cut.eofToken().column()).isEqualTo(2);
+  }
+
+  @Test
+  void should_summarize_kinds_of_subtrees_of_classes_and_blocks() {
+    CompilationUnitTree cut = test("class A {\n void f() { if (true) { int i = 0; } }\n class B { }\n}");
+    ClassTree classA = (ClassTree) cut.types().get(0);
+    BlockTree body = ((MethodTree) classA.members().get(0)).block();
+    BlockTree thenBlock = (BlockTree) ((IfStatementTree) body.body().get(0)).thenStatement();
+    ClassTree classB = (ClassTree) classA.members().get(1);
+
+    long[] thenKinds = ((JavaTree) thenBlock).subtreeKinds();
+    assertThat(SubtreeKinds.contains(thenKinds, Tree.Kind.VARIABLE)).isTrue();
+    assertThat(SubtreeKinds.contains(thenKinds, Tree.Kind.INT_LITERAL)).isTrue();
+    assertThat(SubtreeKinds.contains(thenKinds, Tree.Kind.IF_STATEMENT)).isFalse();
+    long[] bodyKinds = ((JavaTree) body).subtreeKinds();
+    assertThat(SubtreeKinds.contains(bodyKinds, Tree.Kind.IF_STATEMENT)).isTrue();
+    assertThat(SubtreeKinds.contains(bodyKinds, Tree.Kind.BLOCK)).isTrue();
+    assertThat(SubtreeKinds.contains(bodyKinds, Tree.Kind.VARIABLE)).isTrue();
+    long[] classKinds = ((JavaTree) classA).subtreeKinds();
+    assertThat(SubtreeKinds.contains(classKinds, Tree.Kind.METHOD)).isTrue();
+    assertThat(SubtreeKinds.contains(classKinds, Tree.Kind.CLASS)).isTrue();
+    assertThat(SubtreeKinds.contains(classKinds, Tree.Kind.VARIABLE)).isTrue();
+    assertThat(SubtreeKinds.contains(classKinds, Tree.Kind.SWITCH_EXPRESSION)).isFalse();
+    assertThat(SubtreeKinds.intersects(((JavaTree) classB).subtreeKinds(), SubtreeKinds.of(Arrays.asList(Tree.Kind.METHOD, Tree.Kind.VARIABLE)))).isFalse();
+    assertThat(((JavaTree) cut).subtreeKinds()).isNull();
+  }
+
   @Test
   void unknown_types_are_collected() {
     // import org.foo missing, type Bar unknown
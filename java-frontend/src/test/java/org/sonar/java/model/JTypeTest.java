@@ -40,6 +40,9 @@ import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.sonar.java.model.assertions.TypeAssert.assertThat;
 
 class JTypeTest {
@@ -258,6 +261,39 @@ class JTypeTest {
       .isNotSubtypeOf(primitiveType);
   }
 
+  @Test
+  void isSubtypeOf_should_resolve_super_types_once() {
+    JType type = type("java.util.ArrayList");
+    Type list = sema.getClassType("java.util.List");
+    assertThat(sema.getClassType("java.util.List")).isSameAs(list);
+
+    assertThat(type.isSubtypeOf("java.util.List")).isTrue();
+    assertThat(type.isSubtypeOf(list)).isTrue();
+    assertThat(type.isSubtypeOf("java.util.List")).isTrue();
+    assertThat(type.isSubtypeOf("java.util.Map")).isFalse();
+    assertThat(type.isSubtypeOf("java.util.Map")).isFalse();
+    assertThat(type.isSubtypeOf("unknown.Type")).isFalse();
+    assertThat(type("java.util.Map").isSubtypeOf(list)).isFalse();
+  }
+
+  @Test
+  void isSubtypeOf_should_be_computed_once_by_pair_of_types() {
+    ITypeBinding arrayListBinding = spy(Objects.requireNonNull(sema.resolveType("java.util.ArrayList")));
+    JType type = new JType(sema, arrayListBinding);
+    Type list = sema.getClassType("java.util.List");
+    Type map = sema.getClassType("java.util.Map");
+    ITypeBinding listBinding = ((JType) list).typeBinding;
+    ITypeBinding mapBinding = ((JType) map).typeBinding;
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(type.isSubtypeOf("java.util.List")).isTrue();
+      assertThat(type.isSubtypeOf(list)).isTrue();
+      assertThat(type.isSubtypeOf(map)).isFalse();
+    }
+    verify(arrayListBinding, times(1)).isSubTypeCompatible(listBinding);
+    verify(arrayListBinding, times(1)).isSubTypeCompatible(mapBinding);
+  }
+
   @Test
   void wildcard() {
     JavaTree.CompilationUnitTreeImpl cu = test("class C<T1, T2, T3> { C<? extends String, ? extends String, ? super String> f; }");
@@ -0,0 +1,83 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SourceTextTest {
+
+  @Test
+  void lines_should_be_split_like_scanner_does() {
+    String[] texts = {
+      "",
+      "a",
+      "a\n",
+      "\n",
+      "a\nb",
+      "a\r\nb\r\n",
+      "a\rb\r",
+      "a\n\n\nb",
+      "a\r\n\r\nb\n\r",
+      "a\u2028b\u2029c\u0085d",
+      "class A {\n  int i;\n}\n"
+    };
+    for (String text : texts) {
+      SourceText sourceText = new SourceText(text);
+      List<String> expected = scannerLines(text);
+      assertThat(sourceText.lines()).as(text).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void lines_should_be_computed_once() {
+    SourceText sourceText = new SourceText("class A {\r\n  int i;\r\n}");
+    assertThat(sourceText.text()).isEqualTo("class A {\r\n  int i;\r\n}");
+    assertThat(sourceText.length()).isEqualTo(22);
+    assertThat(sourceText.lines()).containsExactly("class A {", "  int i;", "}").isSameAs(sourceText.lines());
+    assertThatThrownBy(() -> sourceText.lines().add("")).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void lines_of_large_text() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 1_000; i++) {
+      text.append("line ").append(i).append('\n');
+    }
+    SourceText sourceText = new SourceText(text.toString());
+    assertThat(sourceText.lines()).hasSize(1_000).endsWith("line 999");
+  }
+
+  private static List<String> scannerLines(String text) {
+    List<String> lines = new ArrayList<>();
+    try (Scanner scanner = new Scanner(text)) {
+      while (scanner.hasNextLine()) {
+        lines.add(scanner.nextLine());
+      }
+    }
+    return lines;
+  }
+
+}
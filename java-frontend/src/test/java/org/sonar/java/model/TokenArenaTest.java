@@ -0,0 +1,98 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.model;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenArenaTest {
+
+  @Test
+  void tokens_should_be_views_on_the_arena() {
+    String source = "/* a */ // b\nint i";
+    TokenArena arena = TokenArena.create(source, 5);
+    arena.set(0, 0, 7, 1, 0, TokenArena.COMMENT);
+    arena.set(1, 8, 12, 1, 8, TokenArena.COMMENT);
+    arena.set(2, 13, 16, 2, 0, TokenArena.TOKEN);
+    arena.set(3, 17, 18, 2, 4, TokenArena.TOKEN);
+    arena.set(4, 18, 18, 2, 5, TokenArena.EOF);
+
+    InternalSyntaxToken intToken = new InternalSyntaxToken(arena, 2);
+    assertThat(intToken.text()).isEqualTo("int").isSameAs(arena.text(2));
+    assertThat(intToken.line()).isEqualTo(2);
+    assertThat(intToken.column()).isZero();
+    assertThat(intToken.isEOF()).isFalse();
+    List<SyntaxTrivia> trivias = intToken.trivias();
+    assertThat(trivias).extracting(SyntaxTrivia::comment).containsExactly("/* a */", "// b");
+    assertThat(trivias).extracting(SyntaxTrivia::column).containsExactly(0, 8);
+    assertThat(new InternalSyntaxToken(arena, 2).trivias()).isSameAs(trivias);
+    assertThat(new InternalSyntaxToken(intToken).text()).isEqualTo("int");
+
+    InternalSyntaxToken iToken = new InternalSyntaxToken(arena, 3);
+    assertThat(iToken.text()).isEqualTo("i");
+    assertThat(iToken.trivias()).isEmpty();
+
+    InternalSyntaxToken eof = new InternalSyntaxToken(arena, 4);
+    assertThat(eof.text()).isEmpty();
+    assertThat(eof.column()).isEqualTo(5);
+    assertThat(eof.isEOF()).isTrue();
+  }
+
+  @Test
+  void detached_token() {
+    List<SyntaxTrivia> trivias = Collections.singletonList(InternalSyntaxTrivia.create("// c", 1, 0));
+    InternalSyntaxToken token = new InternalSyntaxToken(2, 3, ">", trivias, false);
+    assertThat(token.text()).isEqualTo(">");
+    assertThat(token.line()).isEqualTo(2);
+    assertThat(token.column()).isEqualTo(3);
+    assertThat(token.trivias()).isSameAs(trivias);
+    assertThat(token.isEOF()).isFalse();
+    assertThat(new InternalSyntaxToken(1, 0, "", Collections.emptyList(), true).isEOF()).isTrue();
+  }
+
+  @Test
+  void retained_size() {
+    int size = 1_000;
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < size / 2; i++) {
+      source.append("//c\nid ");
+    }
+    TokenArena arena = TokenArena.create(source.toString(), size);
+    for (int i = 0; i < size; i += 2) {
+      int start = 7 * i / 2;
+      arena.set(i, start, start + 3, i / 2 + 1, 0, TokenArena.COMMENT);
+      arena.set(i + 1, start + 4, start + 6, i / 2 + 2, 0, TokenArena.TOKEN);
+    }
+    long sourceSize = GraphLayout.parseInstance(source.toString()).totalSize();
+    // four int arrays, a byte array, and two arrays of references for the texts and trivias requested later
+    assertThat(GraphLayout.parseInstance(arena).totalSize() - sourceSize).isLessThanOrEqualTo(33L * size + 200);
+
+    for (int i = 1; i < size; i += 2) {
+      assertThat(arena.text(i)).isEqualTo("id").isSameAs(arena.text(i));
+      assertThat(arena.trivias(i)).hasSize(1).isSameAs(arena.trivias(i));
+    }
+  }
+
+}
@@ -38,11 +38,18 @@ import org.sonar.java.AnalysisException;
 import org.sonar.java.CheckFailureException;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.TestUtils;
+import org.sonar.java.ast.visitors.FusableTreeVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.matcher.MethodMatchersSubscriber;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -193,9 +200,11 @@ class VisitorsBridgeTest {
       e.printStackTrace();
       Fail.fail("Exceptions should be swallowed when property is not set");
     }
-    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(1);
+    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(2);
     assertThat(logTester.logs(LoggerLevel.ERROR).stream().map(VisitorsBridgeTest::ruleKeyFromErrorLog))
-      .containsOnly("IV1_ThrowingNPEVisitingClass - IV1");
+      .containsExactlyInAnyOrder(
+        "IV1_ThrowingNPEVisitingClass - IV1",
+        "IV2_ThrowingNPELeavingClass - IV2");
   }
 
   @Test
@@ -229,6 +238,266 @@ class VisitorsBridgeTest {
     assertThat(logTester.logs(LoggerLevel.ERROR)).isEmpty();
   }
 
+  @Test
+  void subscription_visitors_should_share_a_single_walk_after_other_scanners() {
+    List<String> events = new ArrayList<>();
+    SubscriptionVisitor subscriptionVisitor = new SubscriptionVisitor() {
+      @Override
+      public List<Tree.Kind> nodesToVisit() {
+        return Collections.singletonList(Tree.Kind.CLASS);
+      }
+
+      @Override
+      public void setContext(JavaFileScannerContext context) {
+        super.setContext(context);
+        events.add("setContext");
+      }
+
+      @Override
+      public void visitNode(Tree tree) {
+        events.add("visitNode");
+      }
+
+      @Override
+      public void leaveFile(JavaFileScannerContext context) {
+        events.add("leaveFile");
+      }
+    };
+    SubscriptionVisitor drivingItsOwnVisit = new SubscriptionVisitor() {
+      @Override
+      public List<Tree.Kind> nodesToVisit() {
+        return Collections.singletonList(Tree.Kind.CLASS);
+      }
+
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        events.add("scanFile");
+      }
+    };
+
+    visitorsBridge(Arrays.asList(drivingItsOwnVisit, subscriptionVisitor), true).visitFile(COMPILATION_UNIT_TREE);
+
+    assertThat(events).containsExactly("scanFile", "setContext", "visitNode", "leaveFile");
+  }
+
+  @Test
+  void failing_subscription_visitor_should_be_skipped_until_the_next_file() {
+    CompilationUnitTree tree = JParserTestUtils.parse("class A {\n"
+      + "  class B {}\n"
+      + "  class C {}\n"
+      + "}");
+    List<String> failingVisits = new ArrayList<>();
+    List<String> otherVisits = new ArrayList<>();
+    SubscriptionVisitor failingVisitor = new SubscriptionVisitor() {
+      @Override
+      public List<Tree.Kind> nodesToVisit() {
+        return Collections.singletonList(Tree.Kind.CLASS);
+      }
+
+      @Override
+      public void visitNode(Tree tree) {
+        failingVisits.add(((ClassTree) tree).simpleName().name());
+        throw NPE;
+      }
+    };
+    SubscriptionVisitor otherVisitor = new SubscriptionVisitor() {
+      @Override
+      public List<Tree.Kind> nodesToVisit() {
+        return Collections.singletonList(Tree.Kind.CLASS);
+      }
+
+      @Override
+      public void visitNode(Tree tree) {
+        otherVisits.add(((ClassTree) tree).simpleName().name());
+      }
+    };
+    VisitorsBridge bridge = new VisitorsBridge(Arrays.asList(failingVisitor, otherVisitor), new ArrayList<>(), null);
+
+    bridge.visitFile(tree);
+    assertThat(failingVisits).containsExactly("A");
+    assertThat(otherVisits).containsExactly("A", "B", "C");
+    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(1);
+
+    bridge.visitFile(tree);
+    assertThat(failingVisits).containsExactly("A", "A");
+    assertThat(otherVisits).containsExactly("A", "B", "C", "A", "B", "C");
+    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(2);
+  }
+
+  @Test
+  void method_matchers_subscribers_should_only_visit_matching_invocations() {
+    CompilationUnitTree tree = JParserTestUtils.parse("class A {\n"
+      + "  void f() {\n"
+      + "    g(1);\n"
+      + "    g();\n"
+      + "    h();\n"
+      + "    new A();\n"
+      + "    Runnable r = this::h;\n"
+      + "  }\n"
+      + "  void g(int i) { }\n"
+      + "  void g() { }\n"
+      + "  void h() { }\n"
+      + "}");
+    List<String> matching = new ArrayList<>();
+    List<String> all = new ArrayList<>();
+    MethodMatchers matchers = MethodMatchers.or(
+      MethodMatchers.create().ofTypes("A").names("g").addWithoutParametersMatcher().build(),
+      MethodMatchers.create().ofTypes("A").constructor().addWithoutParametersMatcher().build());
+    InvocationsVisitor subscriber = new MatchingInvocationsVisitor(matching, matchers);
+    InvocationsVisitor visitor = new InvocationsVisitor(all);
+
+    new VisitorsBridge(Arrays.asList(subscriber, visitor), new ArrayList<>(), null).visitFile(tree);
+
+    assertThat(matching).containsExactly("visit METHOD_INVOCATION 4", "leave METHOD_INVOCATION 4", "visit NEW_CLASS 6", "leave NEW_CLASS 6");
+    assertThat(all).hasSize(10);
+  }
+
+  private static class InvocationsVisitor extends SubscriptionVisitor {
+    private final List<String> events;
+
+    InvocationsVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Arrays.asList(Tree.Kind.METHOD_INVOCATION, Tree.Kind.NEW_CLASS, Tree.Kind.METHOD_REFERENCE);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      events.add("visit " + tree.kind() + " " + tree.firstToken().line());
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      events.add("leave " + tree.kind() + " " + tree.firstToken().line());
+    }
+  }
+
+  private static class MatchingInvocationsVisitor extends InvocationsVisitor implements MethodMatchersSubscriber {
+    private final MethodMatchers matchers;
+
+    MatchingInvocationsVisitor(List<String> events, MethodMatchers matchers) {
+      super(events);
+      this.matchers = matchers;
+    }
+
+    @Override
+    public MethodMatchers subscribedMatchers() {
+      return matchers;
+    }
+  }
+
+  @Test
+  void fusable_tree_visitors_should_share_a_single_walk_of_the_tree() {
+    CompilationUnitTree tree = JParserTestUtils.parse("class A {\n"
+      + "  void f(int a) {\n"
+      + "    g(a);\n"
+      + "  }\n"
+      + "  void g(int b) {\n"
+      + "    f(b);\n"
+      + "  }\n"
+      + "  class B { void h() { f(1); } }\n"
+      + "}");
+    List<String> fusedIdentifiers = new ArrayList<>();
+    List<String> fusedInvocations = new ArrayList<>();
+    List<String> fusedMethods = new ArrayList<>();
+    List<String> fusedFailures = new ArrayList<>();
+    List<String> optedOut = new ArrayList<>();
+    IdentifiersVisitor failingVisitor = new IdentifiersVisitor(fusedFailures) {
+      @Override
+      public void visitIdentifier(IdentifierTree tree) {
+        super.visitIdentifier(tree);
+        if ("g".equals(tree.name())) {
+          throw NPE;
+        }
+      }
+    };
+    IdentifiersVisitor optedOutVisitor = new IdentifiersVisitor(optedOut) {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        super.scanFile(context);
+      }
+    };
+    List<JavaFileScanner> visitors = Arrays.asList(
+      new IdentifiersVisitor(fusedIdentifiers),
+      new InvocationArgumentsVisitor(fusedInvocations),
+      new TopLevelMethodsVisitor(fusedMethods),
+      failingVisitor,
+      optedOutVisitor);
+
+    new VisitorsBridge(visitors, new ArrayList<>(), null).visitFile(tree);
+
+    List<String> identifiers = new ArrayList<>();
+    new IdentifiersVisitor(identifiers).scanFile(new DefaultJavaFileScannerContext((JavaTree.CompilationUnitTreeImpl) tree, null, null, null, null, true));
+    assertThat(identifiers).containsExactly("start", "A", "f", "a", "g", "a", "g", "b", "f", "b", "B", "h", "f", "end");
+    assertThat(fusedIdentifiers).isEqualTo(identifiers);
+    assertThat(optedOut).isEqualTo(identifiers);
+    assertThat(fusedInvocations).containsExactly("a", "b", "1");
+    assertThat(fusedMethods).containsExactly("f", "g");
+    assertThat(fusedFailures).containsExactly("start", "A", "f", "a", "g");
+    assertThat(logTester.logs(LoggerLevel.ERROR)).hasSize(1);
+  }
+
+  private static class IdentifiersVisitor extends FusableTreeVisitor {
+    final List<String> events;
+
+    IdentifiersVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public void setContext(JavaFileScannerContext context) {
+      events.add("start");
+    }
+
+    @Override
+    public void visitIdentifier(IdentifierTree tree) {
+      events.add(tree.name());
+    }
+
+    @Override
+    public void leaveFile(JavaFileScannerContext context) {
+      events.add("end");
+    }
+  }
+
+  private static class InvocationArgumentsVisitor extends FusableTreeVisitor {
+    private final List<String> events;
+
+    InvocationArgumentsVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public void visitMethodInvocation(MethodInvocationTree tree) {
+      // does not descend into the invoked method
+      tree.arguments().forEach(argument -> events.add(argument.firstToken().text()));
+    }
+  }
+
+  private static class TopLevelMethodsVisitor extends FusableTreeVisitor {
+    private final List<String> events;
+
+    TopLevelMethodsVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public void visitClass(ClassTree tree) {
+      // does not descend into nested classes
+      if (tree.parent().is(Tree.Kind.COMPILATION_UNIT)) {
+        super.visitClass(tree);
+      }
+    }
+
+    @Override
+    public void visitMethod(MethodTree tree) {
+      events.add(tree.simpleName().name());
+    }
+  }
+
   @Test
   void should_not_create_symbol_table_for_generated() {
     SonarComponents sonarComponents = mock(SonarComponents.class);
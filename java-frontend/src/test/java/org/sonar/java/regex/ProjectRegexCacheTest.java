@@ -0,0 +1,87 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.LiteralTree;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectRegexCacheTest {
+
+  @Test
+  void results_should_be_shared_by_regexes_of_different_files() {
+    List<LiteralTree> file1 = literals("class A { String s0 = \"a+b\"; }");
+    List<LiteralTree> file2 = literals("class B { String s0 = \"a+\" + \"b\"; }");
+    RegexParseResult regexOfFile1 = new RegexCache().getRegexForLiterals(new FlagSet(), file1.get(0));
+    RegexParseResult regexOfFile2 = new RegexCache().getRegexForLiterals(new FlagSet(), file2.get(0), file2.get(1));
+    RegexParseResult caseInsensitiveRegex = new RegexCache().getRegexForLiterals(new FlagSet(Pattern.CASE_INSENSITIVE), file1.get(0));
+    assertThat(regexOfFile2).isNotSameAs(regexOfFile1);
+
+    ProjectRegexCache<Object> cache = new ProjectRegexCache<>();
+    Object result = cache.computeIfAbsent(regexOfFile1, regex -> new Object());
+    assertThat(cache.computeIfAbsent(regexOfFile2, regex -> new Object())).isSameAs(result);
+    assertThat(cache.computeIfAbsent(caseInsensitiveRegex, regex -> new Object())).as("other flags").isNotSameAs(result);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void least_recently_used_results_should_be_evicted() {
+    StringBuilder source = new StringBuilder("class A {\n");
+    for (int i = 0; i <= ProjectRegexCache.MAX_CACHE_SIZE; i++) {
+      source.append("  String s").append(i).append(" = \"a").append(i).append("\";\n");
+    }
+    List<LiteralTree> literals = literals(source.append("}").toString());
+    RegexCache regexCache = new RegexCache();
+    RegexParseResult first = regexCache.getRegexForLiterals(new FlagSet(), literals.get(0));
+    RegexParseResult second = regexCache.getRegexForLiterals(new FlagSet(), literals.get(1));
+    ProjectRegexCache<Integer> cache = new ProjectRegexCache<>();
+    cache.computeIfAbsent(first, regex -> 0);
+    cache.computeIfAbsent(second, regex -> 1);
+    for (int i = 2; i <= ProjectRegexCache.MAX_CACHE_SIZE; i++) {
+      // keeps the first regex recently used
+      cache.computeIfAbsent(first, regex -> -1);
+      int index = i;
+      cache.computeIfAbsent(regexCache.getRegexForLiterals(new FlagSet(), literals.get(i)), regex -> index);
+    }
+    assertThat(cache.size()).isEqualTo(ProjectRegexCache.MAX_CACHE_SIZE);
+    assertThat(cache.computeIfAbsent(first, regex -> -1)).isZero();
+    assertThat(cache.computeIfAbsent(second, regex -> -1)).as("evicted").isEqualTo(-1);
+  }
+
+  private static List<LiteralTree> literals(String source) {
+    List<LiteralTree> literals = new ArrayList<>();
+    JParserTestUtils.parse(source).accept(new BaseTreeVisitor() {
+      @Override
+      public void visitLiteral(LiteralTree tree) {
+        literals.add(tree);
+      }
+    });
+    return literals;
+  }
+
+}
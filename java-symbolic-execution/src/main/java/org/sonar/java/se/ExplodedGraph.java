@@ -19,33 +19,33 @@
  */
 package org.sonar.java.se;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-import org.sonar.java.Preconditions;
-
-import org.sonar.java.se.xproc.MethodYield;
-import org.sonar.plugins.java.api.tree.Tree;
-
-import javax.annotation.Nullable;
-
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import javax.annotation.Nullable;
+import org.sonar.java.Preconditions;
+import org.sonar.java.se.xproc.MethodYield;
+import org.sonar.plugins.java.api.tree.Tree;
 
 public class ExplodedGraph {
 
-  private final Map<Node, Node> nodes = new HashMap<>();
+  private Map<Node, Node> nodes = new HashMap<>();
   private final Map<ProgramPoint, List<Node>> nodesByProgramPoint = new HashMap<>();
+  private final ProgramStateInterner interner = new ProgramStateInterner();
 
   /**
    * Returns node associated with given (programPoint,programState) pair. If no node for this pair exists, it is created.
+   * The program state of a node shares its components with the equal states of the other nodes of the graph.
    */
   public Node node(ProgramPoint programPoint, @Nullable ProgramState programState) {
-    Node result = new Node(programPoint, programState, this);
+    Node result = new Node(programPoint, interner.intern(programState), this);
     Node cached = nodes.get(result);
     if (cached != null) {
       cached.isNew = false;
@@ -53,7 +53,7 @@ public class ExplodedGraph {
     }
     result.isNew = true;
     nodes.put(result, result);
-    nodesByProgramPoint.computeIfAbsent(programPoint, k -> new LinkedList<>()).add(result);
+    nodesByProgramPoint.computeIfAbsent(programPoint, k -> new ArrayList<>(1)).add(result);
     return result;
   }
 
@@ -61,13 +61,29 @@ public class ExplodedGraph {
     return nodes;
   }
 
+  /**
+   * Releases what is only needed to create the nodes of the graph. Nodes stay reachable from the yields of the method behavior
+   * and are still used to compute flows, but no node can be created anymore.
+   */
+  void endOfExecution() {
+    nodes = Collections.emptyMap();
+    interner.clear();
+  }
+
+  /**
+   * Nodes are kept until the end of the analysis of a file, by the yields of the method behaviors: their edges are indexed by
+   * a singleton map, as most of the nodes have a single parent, and yields are only stored on the edges of method invocations.
+   */
   public static final class Node {
 
     public final ProgramPoint programPoint;
     @Nullable
     public final ProgramState programState;
 
-    private final Map<Node, Edge> edges = new HashMap<>();
+    /**
+     * Edges indexed by parent, in insertion order
+     */
+    private Map<Node, Edge> edges = Collections.emptyMap();
 
     private boolean isNew;
     boolean exitPath = false;
@@ -86,10 +102,21 @@ public class ExplodedGraph {
       if (parent == null) {
         return;
       }
-      Edge edge = edges.computeIfAbsent(parent, p -> new Edge(this, p));
+      Edge edge = edges.get(parent);
+      if (edge == null) {
+        edge = new Edge(this, parent);
+        if (edges.isEmpty()) {
+          edges = Collections.singletonMap(parent, edge);
+        } else {
+          if (edges.size() == 1) {
+            edges = new LinkedHashMap<>(edges);
+          }
+          edges.put(parent, edge);
+        }
+      }
       if (methodYield != null) {
         Preconditions.checkState(parent.programPoint.syntaxTree().is(Tree.Kind.METHOD_INVOCATION), "Yield on edge where parent is not MIT");
-        edge.yields.add(methodYield);
+        edge.addYield(methodYield);
       }
     }
 
@@ -101,14 +128,14 @@ public class ExplodedGraph {
 
     @Nullable
     public Node parent() {
-      return parents().stream().findFirst().orElse(null);
+      return edges.isEmpty() ? null : edges.keySet().iterator().next();
     }
 
     /**
      * @return the ordered (by insertion) sets of parents
      */
     public Set<Node> parents() {
-      return edges.keySet();
+      return Collections.unmodifiableSet(edges.keySet());
     }
 
     @Override
@@ -132,7 +159,7 @@ public class ExplodedGraph {
     }
 
     public Collection<Edge> edges() {
-      return edges.values();
+      return Collections.unmodifiableCollection(edges.values());
     }
 
     public boolean isNew() {
@@ -147,7 +174,7 @@ public class ExplodedGraph {
 
     private Set<LearnedConstraint> lc;
     private Set<LearnedAssociation> la;
-    private final Set<MethodYield> yields = new LinkedHashSet<>();
+    private Set<MethodYield> yields = Collections.emptySet();
 
     private Edge(Node child, Node parent) {
       Preconditions.checkState(!child.equals(parent));
@@ -182,6 +209,14 @@ public class ExplodedGraph {
       return yields;
     }
 
+    private void addYield(MethodYield methodYield) {
+      if (yields.isEmpty()) {
+        // Linked hashSet is required to guarantee order of yields
+        yields = new LinkedHashSet<>();
+      }
+      yields.add(methodYield);
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) {
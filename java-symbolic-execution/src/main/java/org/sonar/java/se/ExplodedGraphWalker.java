@@ -41,6 +41,7 @@ import org.sonar.java.Preconditions;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.cfg.CFG;
 import org.sonar.java.cfg.LiveVariables;
+import org.sonar.java.cfg.MethodDataflow;
 import org.sonar.java.collections.ListUtils;
 import org.sonar.java.collections.SetUtils;
 import org.sonar.java.model.ExpressionUtils;
@@ -222,14 +223,15 @@ public class ExplodedGraphWalker {
 
   private void execute(MethodTree tree) {
     PerformanceMeasure.Duration cfgDuration = PerformanceMeasure.start("cfg");
-    CFG cfg = CFG.build(tree);
+    MethodDataflow dataflow = MethodDataflow.of(tree);
+    CFG cfg = dataflow.cfg();
     exitBlock = cfg.exitBlock();
     cfgDuration.stop();
 
     checkerDispatcher.init(tree, cfg);
 
     PerformanceMeasure.Duration liveVariablesDuration = PerformanceMeasure.start("LiveVariables.analyze");
-    liveVariables = LiveVariables.analyze(cfg);
+    liveVariables = dataflow.liveVariables();
     liveVariablesDuration.stop();
 
     explodedGraph = new ExplodedGraph();
@@ -290,6 +292,7 @@ public class ExplodedGraphWalker {
     checkerDispatcher.executeCheckEndOfExecution();
     endOfExecutionDuration.stop();
     // Cleanup:
+    explodedGraph.endOfExecution();
     workList = null;
     node = null;
     programState = null;
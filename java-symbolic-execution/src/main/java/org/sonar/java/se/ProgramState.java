@@ -46,6 +46,7 @@ import org.sonar.java.se.constraint.ConstraintManager;
 import org.sonar.java.se.constraint.ConstraintsByDomain;
 import org.sonar.java.se.constraint.ObjectConstraint;
 import org.sonar.java.se.symbolicvalues.BinarySymbolicValue;
+import org.sonar.java.se.symbolicvalues.KnownRelations;
 import org.sonar.java.se.symbolicvalues.RelationalSymbolicValue;
 import org.sonar.java.se.symbolicvalues.SymbolicValue;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -57,7 +58,12 @@ public class ProgramState {
 
   private static final Set<Class<? extends Constraint>> NON_DISPOSABLE_CONSTRAINTS = SetUtils.immutableSetOf(UnclosedResourcesCheck.ResourceConstraint.class,
     CustomUnclosedResourcesCheck.CustomResourceConstraint.class, LocksNotUnlockedCheck.LockConstraint.class, StreamConsumedCheck.StreamPipelineConstraint.class);
-  private Set<RelationalSymbolicValue> knownRelations;
+  /**
+   * Relations having a TRUE constraint in this state, computed on demand or maintained from the ones of the parent state.
+   * Never modified: copies are given to callers.
+   */
+  @Nullable
+  private KnownRelations knownRelations;
 
   public static class Pop {
 
@@ -141,6 +147,11 @@ public class ProgramState {
   final PMap<Symbol, SymbolicValue> values;
   final PMap<Integer, SymbolicValue> valuesByIndex;
   final PMap<SymbolicValue, ConstraintsByDomain> constraints;
+  /**
+   * Interner of the exploded graph holding this state, null if the components of this state are not interned.
+   */
+  @Nullable
+  final ProgramStateInterner interner;
 
   private ProgramState(PMap<Symbol, SymbolicValue> values,PMap<Integer, SymbolicValue> valuesByIndex, PMap<SymbolicValue, Integer> references,
                        PMap<SymbolicValue, ConstraintsByDomain> constraints, PMap<ProgramPoint, Integer> visitedPoints,
@@ -152,6 +163,7 @@ public class ProgramState {
     this.visitedPoints = visitedPoints;
     this.stack = stack;
     this.exitSymbolicValue = exitSymbolicValue;
+    this.interner = null;
     constraintSize = 3;
   }
 
@@ -165,6 +177,7 @@ public class ProgramState {
     this.visitedPoints = visitedPoints;
     this.stack = stack;
     this.exitSymbolicValue = exitSymbolicValue;
+    this.interner = null;
     constraintSize = 3;
   }
 
@@ -177,6 +190,8 @@ public class ProgramState {
     visitedPoints = ps.visitedPoints;
     exitSymbolicValue = ps.exitSymbolicValue;
     stack = newStack;
+    knownRelations = ps.knownRelations;
+    interner = null;
   }
 
   private ProgramState(ProgramState ps, PMap<SymbolicValue, ConstraintsByDomain> newConstraints) {
@@ -188,6 +203,30 @@ public class ProgramState {
     visitedPoints = ps.visitedPoints;
     exitSymbolicValue = ps.exitSymbolicValue;
     this.stack = ps.stack;
+    interner = null;
+  }
+
+  private ProgramState(ProgramState ps, PMap<Symbol, SymbolicValue> values, PMap<SymbolicValue, ConstraintsByDomain> constraints,
+                       ProgramStateInterner interner) {
+    this.values = values;
+    valuesByIndex = ps.valuesByIndex;
+    references = ps.references;
+    this.constraints = constraints;
+    constraintSize = ps.constraintSize;
+    visitedPoints = ps.visitedPoints;
+    exitSymbolicValue = ps.exitSymbolicValue;
+    stack = ps.stack;
+    knownRelations = ps.knownRelations;
+    hashCode = ps.hashCode;
+    this.interner = interner;
+  }
+
+  /**
+   * @return this state with the given interned components, which are equal to the ones of this state
+   */
+  ProgramState interned(PMap<Symbol, SymbolicValue> internedValues, PMap<SymbolicValue, ConstraintsByDomain> internedConstraints,
+                        ProgramStateInterner programStateInterner) {
+    return new ProgramState(this, internedValues, internedConstraints, programStateInterner);
   }
 
   public ProgramState stackValue(SymbolicValue sv) {
@@ -258,6 +297,13 @@ public class ProgramState {
       return false;
     }
     ProgramState that = (ProgramState) o;
+    if (interner != null && interner == that.interner) {
+      // components of states of the same exploded graph are equal only if they are the same
+      return values == that.values &&
+        constraints == that.constraints &&
+        Objects.equals(exitSymbolicValue, that.exitSymbolicValue) &&
+        Objects.equals(stack, that.stack);
+    }
     return Objects.equals(values, that.values) &&
       Objects.equals(constraints, that.constraints) &&
       Objects.equals(exitSymbolicValue, that.exitSymbolicValue) &&
@@ -278,7 +324,7 @@ public class ProgramState {
   }
 
   public ProgramState addConstraintTransitively(SymbolicValue symbolicValue, Constraint constraint) {
-    List<SymbolicValue> transitiveSymbolicValues = knownRelations().stream()
+    List<SymbolicValue> transitiveSymbolicValues = knownRelations().withOperand(symbolicValue).stream()
       .filter(rsv -> rsv.isEquality() && (rsv.getLeftOp() == symbolicValue || rsv.getRightOp() == symbolicValue))
       .map(rsv -> rsv.getLeftOp() == symbolicValue ? rsv.getRightOp() : rsv.getLeftOp())
       .collect(Collectors.toList());
@@ -289,15 +335,18 @@ public class ProgramState {
     return ps;
   }
 
-  public Set<RelationalSymbolicValue> knownRelations() {
+  /**
+   * @return a copy of the relations known to be true in this state
+   */
+  public KnownRelations knownRelations() {
     if(knownRelations == null) {
-      knownRelations = Collections.unmodifiableSet(getValuesWithConstraints(BooleanConstraint.TRUE)
+      knownRelations = KnownRelations.of(getValuesWithConstraints(BooleanConstraint.TRUE)
         .stream()
         .filter(RelationalSymbolicValue.class::isInstance)
         .map(RelationalSymbolicValue.class::cast)
-        .collect(Collectors.toSet()));
+        .collect(Collectors.toList()));
     }
-    return knownRelations;
+    return knownRelations.copy();
   }
 
   public ProgramState addConstraint(SymbolicValue symbolicValue, Constraint constraint) {
@@ -313,11 +362,31 @@ public class ProgramState {
   public ProgramState addConstraints(SymbolicValue symbolicValue, ConstraintsByDomain constraintsForSV) {
     PMap<SymbolicValue, ConstraintsByDomain> newConstraints = constraints.put(symbolicValue, constraintsForSV);
     if (newConstraints != constraints) {
-      return new ProgramState(this, newConstraints);
+      return withConstraints(newConstraints, symbolicValue, constraintsForSV);
     }
     return this;
   }
 
+  private ProgramState withConstraints(PMap<SymbolicValue, ConstraintsByDomain> newConstraints, SymbolicValue symbolicValue,
+                                       @Nullable ConstraintsByDomain constraintsForSV) {
+    ProgramState ps = new ProgramState(this, newConstraints);
+    if (knownRelations != null) {
+      // known relations are only updated when the constraints of a relation change
+      if (symbolicValue instanceof RelationalSymbolicValue) {
+        ps.knownRelations = knownRelations.copy();
+        RelationalSymbolicValue relation = (RelationalSymbolicValue) symbolicValue;
+        if (constraintsForSV != null && constraintsForSV.hasConstraint(BooleanConstraint.TRUE)) {
+          ps.knownRelations.add(relation);
+        } else {
+          ps.knownRelations.remove(relation);
+        }
+      } else {
+        ps.knownRelations = knownRelations;
+      }
+    }
+    return ps;
+  }
+
   public ProgramState removeConstraintsOnDomain(SymbolicValue sv, Class<? extends Constraint> domain) {
     ConstraintsByDomain svConstraint = constraints.get(sv);
     if(svConstraint == null) {
@@ -325,7 +394,7 @@ public class ProgramState {
     }
     ConstraintsByDomain newConstraintForSv = svConstraint.remove(domain);
     if(newConstraintForSv.isEmpty()) {
-      return new ProgramState(this, constraints.remove(sv));
+      return withConstraints(constraints.remove(sv), sv, null);
     }
     return addConstraints(sv, newConstraintForSv);
   }
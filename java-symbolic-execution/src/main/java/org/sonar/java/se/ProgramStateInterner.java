@@ -0,0 +1,80 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.se;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.sonar.java.collections.PMap;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.plugins.java.api.semantic.Symbol;
+
+/**
+ * Hash-consing of the program states of an {@link ExplodedGraph}: equal values, constraints and constraints by domain of the
+ * states of the graph are replaced by a single instance, so that the many states which only differ by a few symbolic values
+ * do not keep copies of the same maps in memory, and so that states of the graph can be compared by reference of their
+ * components.
+ * <p>
+ * Only the components defining the equality of program states are interned: visited points and references are not part of
+ * it, and interning a whole state would replace them with the ones of another path.
+ */
+final class ProgramStateInterner {
+
+  private Map<PMap<Symbol, SymbolicValue>, PMap<Symbol, SymbolicValue>> values = new HashMap<>();
+  private Map<PMap<SymbolicValue, ConstraintsByDomain>, PMap<SymbolicValue, ConstraintsByDomain>> constraints = new HashMap<>();
+  private Map<ConstraintsByDomain, ConstraintsByDomain> constraintsByDomain = new HashMap<>();
+
+  @Nullable
+  ProgramState intern(@Nullable ProgramState programState) {
+    if (programState == null || programState.interner == this) {
+      return programState;
+    }
+    PMap<Symbol, SymbolicValue> internedValues = values.computeIfAbsent(programState.values, v -> v);
+    PMap<SymbolicValue, ConstraintsByDomain> internedConstraints = constraints.get(programState.constraints);
+    if (internedConstraints == null) {
+      internedConstraints = internConstraintsByDomain(programState.constraints);
+      constraints.put(internedConstraints, internedConstraints);
+    }
+    return programState.interned(internedValues, internedConstraints, this);
+  }
+
+  private PMap<SymbolicValue, ConstraintsByDomain> internConstraintsByDomain(PMap<SymbolicValue, ConstraintsByDomain> map) {
+    PMap<SymbolicValue, ConstraintsByDomain>[] result = new PMap[] {map};
+    map.forEach((sv, constraintsForSV) -> {
+      ConstraintsByDomain interned = constraintsByDomain.computeIfAbsent(constraintsForSV, c -> c);
+      if (interned != constraintsForSV) {
+        // an equal value is not replaced by put
+        result[0] = result[0].remove(sv).put(sv, interned);
+      }
+    });
+    return result[0];
+  }
+
+  /**
+   * Releases the interned instances, once all the states of the graph are created: interned states keep a reference to
+   * this interner.
+   */
+  void clear() {
+    values = new HashMap<>();
+    constraints = new HashMap<>();
+    constraintsByDomain = new HashMap<>();
+  }
+}
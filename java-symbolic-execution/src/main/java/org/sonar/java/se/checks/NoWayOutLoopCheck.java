@@ -29,6 +29,7 @@ import javax.annotation.CheckForNull;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
 import org.sonar.java.cfg.CFGLoop;
+import org.sonar.java.cfg.MethodDataflow;
 import org.sonar.java.model.LiteralUtils;
 import org.sonar.java.se.CheckerContext;
 import org.sonar.java.se.ProgramState;
@@ -60,7 +61,7 @@ public class NoWayOutLoopCheck extends SECheck {
 
   @Override
   public void init(MethodTree tree, CFG cfg) {
-    MethodContext context = new MethodContext(tree, cfg);
+    MethodContext context = new MethodContext(tree);
     contexts.push(context);
   }
 
@@ -263,8 +264,8 @@ public class NoWayOutLoopCheck extends SECheck {
     private final Map<Tree, CFGLoop> loopStarts;
     private final boolean threadRunMethod;
 
-    MethodContext(MethodTree tree, CFG cfg) {
-      loopStarts = CFGLoop.getCFGLoops(cfg);
+    MethodContext(MethodTree tree) {
+      loopStarts = MethodDataflow.of(tree).loops();
       threadRunMethod = THREAD_RUN_MATCHER.matches(tree);
     }
 
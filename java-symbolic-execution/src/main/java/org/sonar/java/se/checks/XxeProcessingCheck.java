@@ -464,9 +464,12 @@ public class XxeProcessingCheck extends SECheck {
         conditionForSecured.equals(that.conditionForSecured);
     }
 
+    /**
+     * Does not depend on {@link #isField}, which is set once the value is a key of the program state
+     */
     @Override
     public int hashCode() {
-      return Objects.hash(super.hashCode(), init, conditionForSecured, isField);
+      return Objects.hash(super.hashCode(), init, conditionForSecured);
     }
 
     public void setField(boolean isField) {
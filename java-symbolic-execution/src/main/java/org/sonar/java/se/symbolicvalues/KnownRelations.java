@@ -0,0 +1,151 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2021 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.java.se.symbolicvalues;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import org.sonar.java.collections.PCollections;
+import org.sonar.java.collections.PMap;
+import org.sonar.java.collections.PSet;
+
+/**
+ * Relations known to be true in a program state, indexed by operand: relations which can be combined with a new relation
+ * share an operand with it, so that the transitive closure of known relations is updated by only looking at the relations
+ * of the operands of the new one.
+ * <p>
+ * Relations are held by persistent collections: a copy is made in constant time, and the relations of a program state are
+ * updated from the ones of its parent when a relation is added to or removed from its constraints.
+ */
+public final class KnownRelations {
+
+  private static final KnownRelations EMPTY = new KnownRelations(PCollections.emptySet(), PCollections.emptyMap(), 0);
+
+  private PSet<RelationalSymbolicValue> relations;
+  private PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand;
+  private int size;
+
+  private KnownRelations(PSet<RelationalSymbolicValue> relations, PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand, int size) {
+    this.relations = relations;
+    this.relationsByOperand = relationsByOperand;
+    this.size = size;
+  }
+
+  /**
+   * @return new empty relations, which can be modified
+   */
+  public static KnownRelations empty() {
+    return EMPTY.copy();
+  }
+
+  public static KnownRelations of(Collection<RelationalSymbolicValue> relations) {
+    KnownRelations result = empty();
+    relations.forEach(result::add);
+    return result;
+  }
+
+  /**
+   * @return a copy of these relations, which can be modified without modifying these ones
+   */
+  public KnownRelations copy() {
+    return new KnownRelations(relations, relationsByOperand, size);
+  }
+
+  /**
+   * @return true if the relation was not already known
+   */
+  public boolean add(RelationalSymbolicValue relation) {
+    if (relations.contains(relation)) {
+      return false;
+    }
+    relations = relations.add(relation);
+    relationsByOperand = addByOperand(relationsByOperand, relation.getLeftOp(), relation);
+    relationsByOperand = addByOperand(relationsByOperand, relation.getRightOp(), relation);
+    size++;
+    return true;
+  }
+
+  /**
+   * @return true if the relation was known
+   */
+  public boolean remove(RelationalSymbolicValue relation) {
+    if (!relations.contains(relation)) {
+      return false;
+    }
+    relations = relations.remove(relation);
+    relationsByOperand = removeByOperand(relationsByOperand, relation.getLeftOp(), relation);
+    relationsByOperand = removeByOperand(relationsByOperand, relation.getRightOp(), relation);
+    size--;
+    return true;
+  }
+
+  public boolean contains(RelationalSymbolicValue relation) {
+    return relations.contains(relation);
+  }
+
+  public void forEach(Consumer<RelationalSymbolicValue> action) {
+    relations.forEach(action);
+  }
+
+  /**
+   * @return known relations having the given symbolic value as left or right operand
+   */
+  public List<RelationalSymbolicValue> withOperand(SymbolicValue operand) {
+    List<RelationalSymbolicValue> result = new ArrayList<>();
+    PSet<RelationalSymbolicValue> operandRelations = relationsByOperand.get(operand);
+    if (operandRelations != null) {
+      operandRelations.forEach(result::add);
+    }
+    return result;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private static PMap<SymbolicValue, PSet<RelationalSymbolicValue>> addByOperand(PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand,
+    SymbolicValue operand, RelationalSymbolicValue relation) {
+    PSet<RelationalSymbolicValue> operandRelations = relationsByOperand.get(operand);
+    if (operandRelations == null) {
+      operandRelations = PCollections.emptySet();
+    }
+    return relationsByOperand.put(operand, operandRelations.add(relation));
+  }
+
+  private static PMap<SymbolicValue, PSet<RelationalSymbolicValue>> removeByOperand(PMap<SymbolicValue, PSet<RelationalSymbolicValue>> relationsByOperand,
+    SymbolicValue operand, RelationalSymbolicValue relation) {
+    PSet<RelationalSymbolicValue> operandRelations = relationsByOperand.get(operand);
+    if (operandRelations == null) {
+      return relationsByOperand;
+    }
+    operandRelations = operandRelations.remove(relation);
+    return operandRelations.isEmpty() ? relationsByOperand.remove(operand) : relationsByOperand.put(operand, operandRelations);
+  }
+
+  @Override
+  public String toString() {
+    return relations.toString();
+  }
+}
@@ -103,11 +103,11 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   @Override
   public List<ProgramState> setConstraint(ProgramState initialProgramState, BooleanConstraint booleanConstraint) {
-    return setConstraint(initialProgramState, booleanConstraint, new HashSet<>(initialProgramState.knownRelations()));
+    return setConstraint(initialProgramState, booleanConstraint, initialProgramState.knownRelations());
   }
 
   @Override
-  protected List<ProgramState> setConstraint(ProgramState initialProgramState, Constraint constraint, Set<RelationalSymbolicValue> knownRelations) {
+  protected List<ProgramState> setConstraint(ProgramState initialProgramState, Constraint constraint, KnownRelations knownRelations) {
     if (constraint == BooleanConstraint.FALSE) {
       return inverse().setConstraint(initialProgramState, BooleanConstraint.TRUE, knownRelations);
     }
@@ -134,7 +134,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
   }
 
   private static List<ProgramState> getNewProgramStates(ProgramState initialProgramState, Set<RelationalSymbolicValue> newRelations,
-                                                        Set<RelationalSymbolicValue> knownRelations) {
+                                                        KnownRelations knownRelations) {
     List<ProgramState> programStates = new ArrayList<>();
     programStates.add(initialProgramState);
     for (RelationalSymbolicValue relationalSymbolicValue : newRelations) {
@@ -151,7 +151,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return new RelationalSymbolicValue(kind.inverse(), leftOp, rightOp);
   }
 
-  private List<ProgramState> copyAllConstraints(ProgramState initialState, Set<RelationalSymbolicValue> knownRelations) {
+  private List<ProgramState> copyAllConstraints(ProgramState initialState, KnownRelations knownRelations) {
     ProgramState programState = initialState;
     if (programState.canReach(leftOp) || programState.canReach(rightOp)) {
       programState = programState.addConstraint(this, BooleanConstraint.TRUE);
@@ -206,7 +206,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return Stream.of(copiedConstraints, nullConstraints).flatMap(List::stream).collect(Collectors.toList());
   }
 
-  private List<ProgramState> copyConstraintFromTo(SymbolicValue from, SymbolicValue to, ProgramState programState, Set<RelationalSymbolicValue> knownRelations) {
+  private List<ProgramState> copyConstraintFromTo(SymbolicValue from, SymbolicValue to, ProgramState programState, KnownRelations knownRelations) {
     List<ProgramState> states = new ArrayList<>();
     states.add(programState);
     ConstraintsByDomain leftConstraints = programState.getConstraints(from);
@@ -221,7 +221,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return states;
   }
 
-  private void applyConstraints(SymbolicValue symbolicValue, Set<RelationalSymbolicValue> knownRelations, List<ProgramState> states, ConstraintsByDomain constraints) {
+  private void applyConstraints(SymbolicValue symbolicValue, KnownRelations knownRelations, List<ProgramState> states, ConstraintsByDomain constraints) {
     constraints.forEach((d, c) -> {
       Constraint constraint = c.copyOver(kind);
       if (constraint != null) {
@@ -232,19 +232,20 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     });
   }
 
-  private static List<ProgramState> applyConstraint(Constraint constraint, SymbolicValue to, List<ProgramState> states, Set<RelationalSymbolicValue> knownRelations) {
+  private static List<ProgramState> applyConstraint(Constraint constraint, SymbolicValue to, List<ProgramState> states, KnownRelations knownRelations) {
     List<ProgramState> newStates = new ArrayList<>();
     states.forEach(state -> newStates.addAll(to.setConstraint(state, constraint, knownRelations)));
     return newStates;
   }
 
   @VisibleForTesting
-  RelationState resolveRelationState(Set<RelationalSymbolicValue> knownRelations) {
+  RelationState resolveRelationState(KnownRelations knownRelations) {
     if (hasSameOperand()) {
       return relationStateForSameOperand();
     }
 
-    return knownRelations.stream()
+    // only relations on the same operands can determine this one
+    return knownRelations.withOperand(leftOp).stream()
       .map(r -> r.implies(this))
       .filter(RelationState::isDetermined)
       .findAny().orElse(RelationState.UNDETERMINED);
@@ -279,7 +280,7 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
   }
 
   @VisibleForTesting
-  Set<RelationalSymbolicValue> transitiveRelations(Set<RelationalSymbolicValue> knownRelations) {
+  Set<RelationalSymbolicValue> transitiveRelations(KnownRelations knownRelations) {
     Set<RelationalSymbolicValue> newRelations = new HashSet<>();
     Deque<RelationalSymbolicValue> workList = new ArrayDeque<>();
     int iterations = 0;
@@ -292,16 +293,25 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
       }
       iterations++;
       RelationalSymbolicValue relation = workList.pop();
-      for (RelationalSymbolicValue knownRelation : knownRelations) {
-        RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
-        if (r != null && !knownRelations.contains(r) && newRelations.add(r)) {
-          workList.add(r);
-        }
+      // known relations are closed: new ones can only be deduced from the relations sharing an operand with a new one
+      deduceFrom(relation, knownRelations.withOperand(relation.leftOp), knownRelations, newRelations, workList);
+      if (!relation.hasSameOperand()) {
+        deduceFrom(relation, knownRelations.withOperand(relation.rightOp), knownRelations, newRelations, workList);
       }
     }
     return newRelations;
   }
 
+  private static void deduceFrom(RelationalSymbolicValue relation, List<RelationalSymbolicValue> operandRelations, KnownRelations knownRelations,
+    Set<RelationalSymbolicValue> newRelations, Deque<RelationalSymbolicValue> workList) {
+    for (RelationalSymbolicValue knownRelation : operandRelations) {
+      RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
+      if (r != null && !knownRelations.contains(r) && newRelations.add(r)) {
+        workList.add(r);
+      }
+    }
+  }
+
   @VisibleForTesting
   RelationalSymbolicValue deduceTransitiveOrSimplified(RelationalSymbolicValue other) {
     RelationalSymbolicValue result = simplify(other);
@@ -48,7 +48,7 @@ class CheckerDispatcherTest {
   private static ExplodedGraphWalker mockExplodedGraphWalker() {
     ExplodedGraphWalker explodedGraphWalker = mock(ExplodedGraphWalker.class);
     explodedGraphWalker.programPosition = new ProgramPoint(new CFG.Block(1));
-    explodedGraphWalker.programState = mock(ProgramState.class);
+    explodedGraphWalker.programState = ProgramState.EMPTY_STATE;
     explodedGraphWalker.node = new ExplodedGraph().node(explodedGraphWalker.programPosition, explodedGraphWalker.programState);
     return explodedGraphWalker;
   }
@@ -19,9 +19,16 @@
  */
 package org.sonar.java.se;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -54,6 +61,74 @@ class ExplodedGraphTest {
     assertThat(child.parents()).hasSize(2);
   }
 
+  @Test
+  void edges_should_keep_insertion_order_of_parents() {
+    ExplodedGraph eg = new ExplodedGraph();
+    ExplodedGraph.Node child = eg.node(mockProgramPoint("child"), null);
+    List<ExplodedGraph.Node> parents = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      ExplodedGraph.Node parent = eg.node(mockProgramPoint("parent" + i), null);
+      parents.add(parent);
+      child.addParent(parent, null);
+      child.addParent(parents.get(0), null);
+    }
+    assertThat(child.parents()).containsExactlyElementsOf(parents);
+    assertThat(child.parent()).isSameAs(parents.get(0));
+    assertThat(child.edges()).extracting(ExplodedGraph.Edge::parent).containsExactlyElementsOf(parents);
+    assertThat(child.edges()).allMatch(edge -> edge.yields().isEmpty());
+
+    eg.endOfExecution();
+    assertThat(eg.nodes()).isEmpty();
+    assertThat(child.parents()).containsExactlyElementsOf(parents);
+    assertThat(parents.get(1).siblings()).isEmpty();
+  }
+
+  @Test
+  void parents_should_be_an_unmodifiable_view_of_the_edges() {
+    ExplodedGraph eg = new ExplodedGraph();
+    ExplodedGraph.Node child = eg.node(mockProgramPoint("child"), null);
+    ExplodedGraph.Node parent1 = eg.node(mockProgramPoint("parent1"), null);
+    ExplodedGraph.Node parent2 = eg.node(mockProgramPoint("parent2"), null);
+    Set<ExplodedGraph.Node> parents = child.parents();
+    assertThat(parents).isEmpty();
+
+    child.addParent(parent1, null);
+    assertThat(child.parents()).containsExactly(parent1);
+    child.addParent(parent2, null);
+    assertThat(child.parents()).containsExactly(parent1, parent2);
+    assertThatThrownBy(() -> child.parents().remove(parent1)).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> child.edges().clear()).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void states_of_nodes_should_share_equal_components() {
+    ExplodedGraph eg = new ExplodedGraph();
+    SymbolicValue sv1 = new SymbolicValue();
+    SymbolicValue sv2 = new SymbolicValue();
+    ProgramState state = ProgramState.EMPTY_STATE
+      .addConstraint(sv1, ObjectConstraint.NOT_NULL)
+      .addConstraint(sv2, BooleanConstraint.TRUE);
+    // same constraints, added in another order
+    ProgramState otherPath = ProgramState.EMPTY_STATE
+      .addConstraint(sv2, BooleanConstraint.TRUE)
+      .addConstraint(sv1, ObjectConstraint.NOT_NULL)
+      .stackValue(sv1);
+
+    ProgramState nodeState = eg.node(mockProgramPoint("p1"), state).programState;
+    ProgramState otherNodeState = eg.node(mockProgramPoint("p2"), otherPath).programState;
+    assertThat(nodeState).isEqualTo(state).hasSameHashCodeAs(state);
+    assertThat(otherNodeState).isEqualTo(otherPath).isNotEqualTo(nodeState);
+    assertThat(otherNodeState.constraints).isSameAs(nodeState.constraints);
+    assertThat(otherNodeState.values).isSameAs(nodeState.values);
+
+    SymbolicValue sv3 = new SymbolicValue();
+    ProgramState sameConstraintsOnOtherValue = ProgramState.EMPTY_STATE.addConstraint(sv3, ObjectConstraint.NOT_NULL);
+    assertThat(sameConstraintsOnOtherValue.getConstraints(sv3)).isNotSameAs(state.getConstraints(sv1));
+    ProgramState thirdNodeState = eg.node(mockProgramPoint("p3"), sameConstraintsOnOtherValue).programState;
+    assertThat(thirdNodeState.getConstraints(sv3)).isSameAs(nodeState.getConstraints(sv1));
+    assertThat(eg.node(mockProgramPoint("p3"), thirdNodeState).programState).isSameAs(thirdNodeState);
+  }
+
   private ProgramPoint mockProgramPoint(String toString) {
     ProgramPoint mock = mock(ProgramPoint.class);
     when(mock.toString()).thenReturn(toString);
@@ -35,7 +35,6 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.sonar.api.utils.log.LogTesterJUnit5;
 import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.java.collections.ListUtils;
-import org.sonar.java.collections.SetUtils;
 import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.java.model.expression.BinaryExpressionTreeImpl;
 import org.sonar.java.se.ProgramState;
@@ -118,18 +117,18 @@ class RelationalSymbolicValueTest {
   void test_same_operand() {
     assertThat(sameOperandResolution(Tree.Kind.EQUAL_TO)).isEqualTo(FULFILLED);
     RelationalSymbolicValue eq = new RelationalSymbolicValue(METHOD_EQUALS, a, a);
-    assertThat(eq.resolveRelationState(Collections.emptySet())).isEqualTo(FULFILLED);
+    assertThat(eq.resolveRelationState(KnownRelations.empty())).isEqualTo(FULFILLED);
     assertThat(sameOperandResolution(Tree.Kind.LESS_THAN_OR_EQUAL_TO)).isEqualTo(FULFILLED);
     assertThat(sameOperandResolution(Tree.Kind.GREATER_THAN_OR_EQUAL_TO)).isEqualTo(FULFILLED);
 
     assertThat(sameOperandResolution(Tree.Kind.NOT_EQUAL_TO)).isEqualTo(UNFULFILLED);
-    assertThat(eq.inverse().resolveRelationState(Collections.emptySet())).isEqualTo(UNFULFILLED);
+    assertThat(eq.inverse().resolveRelationState(KnownRelations.empty())).isEqualTo(UNFULFILLED);
     assertThat(sameOperandResolution(Tree.Kind.LESS_THAN)).isEqualTo(UNFULFILLED);
     assertThat(sameOperandResolution(Tree.Kind.GREATER_THAN)).isEqualTo(UNFULFILLED);
   }
 
   private RelationState sameOperandResolution(Tree.Kind kind) {
-    return relationalSV(kind, a, a).resolveRelationState(Collections.emptySet());
+    return relationalSV(kind, a, a).resolveRelationState(KnownRelations.empty());
   }
 
   @Test
@@ -158,12 +157,12 @@ class RelationalSymbolicValueTest {
     List<String> actual = new ArrayList<>();
     for (Tree.Kind operator : operators) {
       RelationalSymbolicValue test = relationalSV(operator, b, a);
-      RelationState relationState = test.resolveRelationState(Collections.singleton(known));
+      RelationState relationState = test.resolveRelationState(KnownRelations.of(Collections.singleton(known)));
       actual.add(String.format("given %s when %s -> %s", knownAsString.get(), relationToString(operator, a, b), relationState));
     }
     RelationalSymbolicValue eq = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.METHOD_EQUALS, a, b);
     Stream.of(eq, eq.inverse()).forEach(rel -> {
-      RelationState relationState = rel.resolveRelationState(Collections.singleton(known));
+      RelationState relationState = rel.resolveRelationState(KnownRelations.of(Collections.singleton(known)));
       actual.add(String.format("given %s when %s -> %s", knownAsString.get(), rel, relationState));
     });
     return actual;
@@ -353,10 +352,36 @@ class RelationalSymbolicValueTest {
     RelationalSymbolicValue ab = relationalSV(Tree.Kind.EQUAL_TO, a, b);
     RelationalSymbolicValue bc = relationalSV(Tree.Kind.EQUAL_TO, b, c);
     RelationalSymbolicValue cd = relationalSV(Tree.Kind.EQUAL_TO, c, d);
-    Set<RelationalSymbolicValue> transitive = ab.transitiveRelations(SetUtils.immutableSetOf(ab, bc, cd));
+    Set<RelationalSymbolicValue> transitive = ab.transitiveRelations(KnownRelations.of(Arrays.asList(ab, bc, cd)));
     assertThat(transitive).containsOnly(relationalSV(Tree.Kind.EQUAL_TO, a, c), relationalSV(Tree.Kind.EQUAL_TO, b, d), relationalSV(Tree.Kind.EQUAL_TO, a, d));
   }
 
+  @Test
+  void known_relations_should_be_updated_from_parent_state() {
+    RelationalSymbolicValue ab = relationalSV(Tree.Kind.LESS_THAN, a, b);
+    RelationalSymbolicValue bc = relationalSV(Tree.Kind.LESS_THAN, b, c);
+    ProgramState ps = setTrue(ProgramState.EMPTY_STATE, ab);
+    KnownRelations knownRelations = ps.knownRelations();
+    assertThat(knownRelations.contains(ab)).isTrue();
+    assertThat(knownRelations.withOperand(b)).containsExactly(ab);
+
+    ps = setTrue(ps.stackValue(c), bc);
+    knownRelations = ps.knownRelations();
+    assertThat(knownRelations.size()).isEqualTo(3);
+    assertThat(knownRelations.withOperand(c)).containsOnly(bc, relationalSV(Tree.Kind.LESS_THAN, a, c));
+    assertThat(knownRelations.withOperand(b)).containsOnly(ab, bc);
+
+    ps = ps.removeConstraintsOnDomain(ab, BooleanConstraint.class);
+    knownRelations = ps.knownRelations();
+    assertThat(knownRelations.contains(ab)).isFalse();
+    assertThat(knownRelations.size()).isEqualTo(2);
+    assertThat(knownRelations.withOperand(b)).containsExactly(bc);
+
+    // relations given by a state are copies
+    knownRelations.add(ab);
+    assertThat(ps.knownRelations().contains(ab)).isFalse();
+  }
+
   @Test
   void test_constraints_are_copied_over_transitive_relations() throws Exception {
     ProgramState ps = ProgramState.EMPTY_STATE;
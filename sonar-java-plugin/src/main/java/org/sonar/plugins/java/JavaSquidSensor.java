@@ -89,7 +89,8 @@ public class JavaSquidSensor implements Sensor {
 
   @Override
   public void execute(SensorContext context) {
-    DurationReport sensorDuration = PerformanceMeasure.start(context.config(), "JavaSquidSensor", System::nanoTime);
+    DurationReport sensorDuration = PerformanceMeasure.start(context.config(), "JavaSquidSensor", System::nanoTime,
+      PerformanceMeasure.THREAD_RESOURCES);
 
     sonarComponents.setSensorContext(context);
 